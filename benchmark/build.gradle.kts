@@ -0,0 +1,35 @@
+plugins {
+    java
+}
+repositories {
+    mavenCentral()
+}
+dependencies {
+    implementation(project(":"))
+    implementation("jakarta.inject:jakarta.inject-api:2.0.1")
+    implementation("org.openjdk.jmh:jmh-core:1.37")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks with the GC profiler, e.g. -Pjmh=\"ResolutionBenchmark -f 1\""
+    dependsOn("classes")
+    mainClass.set("org.openjdk.jmh.Main")
+    classpath = sourceSets["main"].runtimeClasspath
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    args((project.findProperty("jmh") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: listOf<String>())
+    args("-prof", "gc", "-rf", "json", "-rff", results.get().asFile.path)
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+}
+tasks.register<JavaExec>("retainedSize") {
+    group = "benchmark"
+    description = "Reports heap retained by a ContextConfig and by the Context frozen from it"
+    dependsOn("classes")
+    mainClass.set("geektime.tdd.di.RetainedSize")
+    classpath = sourceSets["main"].runtimeClasspath
+    jvmArgs("-XX:+UseSerialGC")
+}
@@ -0,0 +1,46 @@
+package geektime.tdd.di;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindBenchmark {
+    @Param({"REFLECTION", "METHOD_HANDLE"})
+    public InjectionEngine engine;
+
+    @Benchmark
+    public Object bindClasses() {
+        ContextConfig config = new ContextConfig();
+        config.engine(engine);
+        config.bind(ConstructorInjected.class, ConstructorInjected.class);
+        config.bind(FieldInjected.class, FieldInjected.class);
+        config.bind(MethodInjected.class, MethodInjected.class);
+        config.bind(SingletonInjected.class, SingletonInjected.class);
+        config.bind(ProviderInjected.class, ProviderInjected.class);
+        config.bind(QualifierInjected.class, QualifierInjected.class);
+        config.bind(Wide.class, Wide.class);
+        return config;
+    }
+
+    @Benchmark
+    public Object batchClasses() {
+        ContextConfig config = new ContextConfig();
+        config.engine(engine);
+        config.batch()
+                .bind(ConstructorInjected.class, ConstructorInjected.class)
+                .bind(FieldInjected.class, FieldInjected.class)
+                .bind(MethodInjected.class, MethodInjected.class)
+                .bind(SingletonInjected.class, SingletonInjected.class)
+                .bind(ProviderInjected.class, ProviderInjected.class)
+                .bind(QualifierInjected.class, QualifierInjected.class)
+                .bind(Wide.class, Wide.class)
+                .commit();
+        return config;
+    }
+}
@@ -0,0 +1,66 @@
+package geektime.tdd.di;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentRefBenchmark {
+    private static final ComponentRef<Dependency> UNQUALIFIED = ComponentRef.of(Dependency.class);
+    private static final ComponentRef<Dependency> QUALIFIED = ComponentRef.of(Dependency.class, new NamedLiteral("qualified"));
+    private static final ComponentRef<Dependency> REFLECTED = ComponentRef.of(Dependency.class, reflected());
+
+    private final Map<Component, Object> components = new HashMap<>();
+    private final Map<ComponentRef<?>, Object> refs = new HashMap<>();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < 1000; i++) {
+            components.put(Component.of(Dependency.class, new NamedLiteral(String.valueOf(i))), i);
+        }
+        components.put(UNQUALIFIED.component(), UNQUALIFIED);
+        components.put(QUALIFIED.component(), QUALIFIED);
+        refs.put(UNQUALIFIED, UNQUALIFIED);
+        refs.put(QUALIFIED, QUALIFIED);
+    }
+
+    @Benchmark
+    public Object unqualifiedComponentHit() {
+        return components.get(UNQUALIFIED.component());
+    }
+
+    @Benchmark
+    public Object qualifiedComponentHit() {
+        return components.get(QUALIFIED.component());
+    }
+
+    @Benchmark
+    public Object reflectedQualifierComponentHit() {
+        return components.get(REFLECTED.component());
+    }
+
+    @Benchmark
+    public Object componentRefHit() {
+        return refs.get(QUALIFIED);
+    }
+
+    @Benchmark
+    public Object internedComponentRef() {
+        return ComponentRef.of(Dependency.class);
+    }
+
+    private static jakarta.inject.Named reflected() {
+        try {
+            return QualifierInjected.class.getConstructor(Dependency.class).getParameters()[0].getAnnotation(jakarta.inject.Named.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
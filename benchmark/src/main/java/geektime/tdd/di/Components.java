@@ -0,0 +1,250 @@
+package geektime.tdd.di;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Provider;
+import jakarta.inject.Scope;
+import jakarta.inject.Singleton;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.util.List;
+import java.util.Objects;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+interface Dependency {
+}
+
+@Scope
+@Retention(RUNTIME)
+@interface Pooled {
+}
+
+record NamedLiteral(String value) implements Named {
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return Named.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Named named && Objects.equals(value, named.value());
+    }
+
+    @Override
+    public int hashCode() {
+        return "value".hashCode() * 127 ^ value.hashCode();
+    }
+}
+
+class ConstructorInjected {
+    final Dependency dependency;
+
+    @Inject
+    public ConstructorInjected(Dependency dependency) {
+        this.dependency = dependency;
+    }
+}
+
+class FieldInjected {
+    @Inject
+    Dependency dependency;
+}
+
+class MethodInjected {
+    Dependency dependency;
+
+    @Inject
+    void install(Dependency dependency) {
+        this.dependency = dependency;
+    }
+}
+
+@Singleton
+class SingletonInjected {
+    final Dependency dependency;
+
+    @Inject
+    public SingletonInjected(Dependency dependency) {
+        this.dependency = dependency;
+    }
+}
+
+class ProviderInjected {
+    final Provider<Dependency> dependency;
+
+    @Inject
+    public ProviderInjected(Provider<Dependency> dependency) {
+        this.dependency = dependency;
+    }
+}
+
+class QualifierInjected {
+    final Dependency dependency;
+
+    @Inject
+    public QualifierInjected(@Named("qualified") Dependency dependency) {
+        this.dependency = dependency;
+    }
+}
+
+class Deep0 {
+    final Deep1 next;
+
+    @Inject
+    public Deep0(Deep1 next) {
+        this.next = next;
+    }
+}
+
+class Deep1 {
+    final Deep2 next;
+
+    @Inject
+    public Deep1(Deep2 next) {
+        this.next = next;
+    }
+}
+
+class Deep2 {
+    final Deep3 next;
+
+    @Inject
+    public Deep2(Deep3 next) {
+        this.next = next;
+    }
+}
+
+class Deep3 {
+    final Deep4 next;
+
+    @Inject
+    public Deep3(Deep4 next) {
+        this.next = next;
+    }
+}
+
+class Deep4 {
+    final Deep5 next;
+
+    @Inject
+    public Deep4(Deep5 next) {
+        this.next = next;
+    }
+}
+
+class Deep5 {
+    final Deep6 next;
+
+    @Inject
+    public Deep5(Deep6 next) {
+        this.next = next;
+    }
+}
+
+class Deep6 {
+    final Deep7 next;
+
+    @Inject
+    public Deep6(Deep7 next) {
+        this.next = next;
+    }
+}
+
+class Deep7 {
+    final Deep8 next;
+
+    @Inject
+    public Deep7(Deep8 next) {
+        this.next = next;
+    }
+}
+
+class Deep8 {
+    final Deep9 next;
+
+    @Inject
+    public Deep8(Deep9 next) {
+        this.next = next;
+    }
+}
+
+class Deep9 {
+    final Dependency dependency;
+
+    @Inject
+    public Deep9(Dependency dependency) {
+        this.dependency = dependency;
+    }
+}
+
+class Wide {
+    final ConstructorInjected a;
+    final FieldInjected b;
+    final MethodInjected c;
+    final SingletonInjected d;
+    final ProviderInjected e;
+    final QualifierInjected f;
+    final Deep9 g;
+    final Deep8 h;
+    final Dependency i;
+    final Provider<Deep0> j;
+
+    @Inject
+    public Wide(ConstructorInjected a, FieldInjected b, MethodInjected c, SingletonInjected d, ProviderInjected e,
+                QualifierInjected f, Deep9 g, Deep8 h, Dependency i, Provider<Deep0> j) {
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.d = d;
+        this.e = e;
+        this.f = f;
+        this.g = g;
+        this.h = h;
+        this.i = i;
+        this.j = j;
+    }
+}
+
+class Node implements ComponentProvider<Object> {
+    private final List<ComponentRef<?>> dependencies;
+
+    Node(List<ComponentRef<?>> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    @Override
+    public Object get(Context context) {
+        return this;
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return dependencies;
+    }
+
+    static ComponentRef<Dependency> ref(int index) {
+        return ComponentRef.of(Dependency.class, new NamedLiteral(String.valueOf(index)));
+    }
+
+    static ContextConfig graph(int size) {
+        ContextConfig config = new ContextConfig();
+        for (int i = 0; i < size; i++) bind(config, i, size);
+        return config;
+    }
+
+    static void bind(ContextConfig config, int index, int size) {
+        List<ComponentRef<?>> dependencies = index == size - 1 ? List.of()
+                : List.of(ref(index + 1), ref(size - 1), ref(index + 1 + (index * 31 + 7) % (size - index - 1)));
+        config.bind(Dependency.class, List.of(new NamedLiteral(String.valueOf(index))), new Node(dependencies));
+    }
+}
+
+class Parser {
+    final byte[] buffer = new byte[64 * 1024];
+}
+
+@Pooled
+class PooledParser extends Parser {
+}
@@ -0,0 +1,72 @@
+package geektime.tdd.di;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBenchmark {
+    @Param({"10000", "50000"})
+    public int size;
+
+    private ContextConfig graph;
+    private Context context;
+    private ComponentRef<?>[] refs;
+
+    @Setup
+    public void setup() {
+        graph = Node.graph(size);
+        context = graph.getContext();
+        refs = new ComponentRef<?>[size];
+        for (int i = 0; i < size; i++) refs[i] = Node.ref(i);
+    }
+
+    @State(Scope.Thread)
+    public static class Cold {
+        private ContextConfig graph;
+
+        @Setup(Level.Invocation)
+        public void setup(ContextBenchmark benchmark) {
+            graph = Node.graph(benchmark.size);
+        }
+    }
+
+    @Benchmark
+    public Object getContext() {
+        return graph.getContext();
+    }
+
+    @Benchmark
+    public Object coldGetContext(Cold cold) {
+        return cold.graph.getContext();
+    }
+
+    @Benchmark
+    public Object rebindGetContext() {
+        Node.bind(graph, 0, size);
+        return graph.getContext();
+    }
+
+    @Benchmark
+    public Object child() {
+        ContextConfig child = new ContextConfig();
+        child.bind(Dependency.class, new Dependency() {
+        });
+        child.bind(ConstructorInjected.class, ConstructorInjected.class);
+        return child.getContext(context).require(ComponentRef.of(ConstructorInjected.class));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void lookup(Blackhole blackhole) {
+        for (int i = 0, index = 0; i < 1024; i++, index = (index + 7919) % size) {
+            blackhole.consume(context.get(refs[index]));
+        }
+    }
+}
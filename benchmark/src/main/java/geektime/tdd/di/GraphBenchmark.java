@@ -0,0 +1,63 @@
+package geektime.tdd.di;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+    private static final ComponentRef<Deep0> DEEP = ComponentRef.of(Deep0.class);
+    private static final ComponentRef<Wide> WIDE = ComponentRef.of(Wide.class);
+
+    @Param({"REFLECTION", "METHOD_HANDLE"})
+    public InjectionEngine engine;
+
+    @Param({"false", "true"})
+    public boolean compile;
+
+    private Context context;
+
+    @Setup
+    public void setup() {
+        ContextConfig config = new ContextConfig();
+        config.engine(engine);
+        config.compile(compile);
+        Dependency dependency = new Dependency() {
+        };
+        config.bind(Dependency.class, dependency);
+        config.bind(Dependency.class, dependency, new NamedLiteral("qualified"));
+        config.bind(ConstructorInjected.class, ConstructorInjected.class);
+        config.bind(FieldInjected.class, FieldInjected.class);
+        config.bind(MethodInjected.class, MethodInjected.class);
+        config.bind(SingletonInjected.class, SingletonInjected.class);
+        config.bind(ProviderInjected.class, ProviderInjected.class);
+        config.bind(QualifierInjected.class, QualifierInjected.class);
+        config.bind(Deep0.class, Deep0.class);
+        config.bind(Deep1.class, Deep1.class);
+        config.bind(Deep2.class, Deep2.class);
+        config.bind(Deep3.class, Deep3.class);
+        config.bind(Deep4.class, Deep4.class);
+        config.bind(Deep5.class, Deep5.class);
+        config.bind(Deep6.class, Deep6.class);
+        config.bind(Deep7.class, Deep7.class);
+        config.bind(Deep8.class, Deep8.class);
+        config.bind(Deep9.class, Deep9.class);
+        config.bind(Wide.class, Wide.class);
+        context = config.getContext();
+    }
+
+    @Benchmark
+    public Object deepGraph() {
+        return context.get(DEEP).get();
+    }
+
+    @Benchmark
+    public Object wideGraph() {
+        return context.get(WIDE).get();
+    }
+}
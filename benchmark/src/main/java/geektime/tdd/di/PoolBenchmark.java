@@ -0,0 +1,42 @@
+package geektime.tdd.di;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class PoolBenchmark {
+    private static final ComponentRef<Parser> PROTOTYPE = ComponentRef.of(Parser.class);
+    private static final ComponentRef<Lease<PooledParser>> LEASE = new ComponentRef<>() {
+    };
+
+    private Context context;
+
+    @Setup
+    public void setup() {
+        ContextConfig config = new ContextConfig();
+        config.scope(Pooled.class, new PoolScope(8, Duration.ofSeconds(1)));
+        config.bind(Parser.class, Parser.class);
+        config.bind(PooledParser.class, PooledParser.class);
+        context = config.getContext();
+    }
+
+    @Benchmark
+    public int prototype() {
+        return context.require(PROTOTYPE).buffer.length;
+    }
+
+    @Benchmark
+    public int pooled() {
+        try (Lease<PooledParser> lease = context.require(LEASE)) {
+            return lease.get().buffer.length;
+        }
+    }
+}
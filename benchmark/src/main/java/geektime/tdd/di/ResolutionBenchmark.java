@@ -0,0 +1,97 @@
+package geektime.tdd.di;
+
+import jakarta.inject.Provider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolutionBenchmark {
+    private static final ComponentRef<Dependency> INSTANCE = ComponentRef.of(Dependency.class);
+    private static final ComponentRef<Dependency> QUALIFIED = ComponentRef.of(Dependency.class, new NamedLiteral("qualified"));
+    private static final ComponentRef<ConstructorInjected> CONSTRUCTOR = ComponentRef.of(ConstructorInjected.class);
+    private static final ComponentRef<FieldInjected> FIELD = ComponentRef.of(FieldInjected.class);
+    private static final ComponentRef<MethodInjected> METHOD = ComponentRef.of(MethodInjected.class);
+    private static final ComponentRef<SingletonInjected> SINGLETON = ComponentRef.of(SingletonInjected.class);
+    private static final ComponentRef<ProviderInjected> PROVIDER = ComponentRef.of(ProviderInjected.class);
+    private static final ComponentRef<QualifierInjected> QUALIFIER = ComponentRef.of(QualifierInjected.class);
+    private static final ComponentRef<Provider<Dependency>> DEPENDENCY_PROVIDER = new ComponentRef<>() {
+    };
+
+    @Param({"REFLECTION", "METHOD_HANDLE"})
+    public InjectionEngine engine;
+
+    private Context context;
+
+    @Setup
+    public void setup() {
+        ContextConfig config = new ContextConfig();
+        config.engine(engine);
+        Dependency dependency = new Dependency() {
+        };
+        config.bind(Dependency.class, dependency);
+        config.bind(Dependency.class, dependency, new NamedLiteral("qualified"));
+        config.bind(ConstructorInjected.class, ConstructorInjected.class);
+        config.bind(FieldInjected.class, FieldInjected.class);
+        config.bind(MethodInjected.class, MethodInjected.class);
+        config.bind(SingletonInjected.class, SingletonInjected.class);
+        config.bind(ProviderInjected.class, ProviderInjected.class);
+        config.bind(QualifierInjected.class, QualifierInjected.class);
+        context = config.getContext();
+    }
+
+    @Benchmark
+    public Object instanceBinding() {
+        return context.get(INSTANCE).get();
+    }
+
+    @Benchmark
+    public Object qualifiedInstanceBinding() {
+        return context.get(QUALIFIED).get();
+    }
+
+    @Benchmark
+    public Object constructorInjection() {
+        return context.get(CONSTRUCTOR).get();
+    }
+
+    @Benchmark
+    public Object fieldInjection() {
+        return context.get(FIELD).get();
+    }
+
+    @Benchmark
+    public Object methodInjection() {
+        return context.get(METHOD).get();
+    }
+
+    @Benchmark
+    public Object singleton() {
+        return context.get(SINGLETON).get();
+    }
+
+    @Benchmark
+    public Object providerInjection() {
+        return context.get(PROVIDER).get().dependency.get();
+    }
+
+    @Benchmark
+    public Object providerLookup() {
+        return context.get(DEPENDENCY_PROVIDER).get().get();
+    }
+
+    @Benchmark
+    public Object constructorInjectionRequired() {
+        return context.require(CONSTRUCTOR);
+    }
+
+    @Benchmark
+    public Object qualifiedInjection() {
+        return context.get(QUALIFIER).get();
+    }
+}
@@ -0,0 +1,30 @@
+package geektime.tdd.di;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+
+public class RetainedSize {
+    private static final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{10_000, 50_000} : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        System.out.printf("%10s %16s %16s %16s%n", "bindings", "config (B)", "config+context", "context only");
+        for (int size : sizes) {
+            long base = used();
+            ContextConfig config = Node.graph(size);
+            long configured = used() - base;
+            Context context = config.getContext();
+            long both = used() - base;
+            config = null;
+            long frozen = used() - base;
+            System.out.printf("%10d %16d %16d %16d%n", size, configured, both, frozen);
+            if (context.get(Node.ref(0)).isEmpty()) throw new IllegalStateException();
+        }
+    }
+
+    private static long used() {
+        for (int i = 0; i < 5; i++) System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
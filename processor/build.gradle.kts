@@ -0,0 +1,20 @@
+plugins {
+    `java-library`
+}
+repositories {
+    mavenCentral()
+}
+dependencies {
+    testImplementation(project(":"))
+    testImplementation("jakarta.inject:jakarta.inject-api:2.0.1")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.2")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher:1.8.2")
+}
+tasks.withType<Test>() {
+    useJUnitPlatform()
+}
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
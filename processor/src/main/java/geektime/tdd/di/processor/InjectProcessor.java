@@ -0,0 +1,271 @@
+package geektime.tdd.di.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+@SupportedAnnotationTypes("*")
+public class InjectProcessor extends AbstractProcessor {
+    static final String INJECT = "jakarta.inject.Inject";
+    static final String QUALIFIER = "jakarta.inject.Qualifier";
+    static final String SUFFIX = "_Factory";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (processingEnv.getElementUtils().getTypeElement(INJECT) == null) return false;
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            process(type);
+        }
+        return false;
+    }
+
+    private void process(TypeElement type) {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            process(nested);
+        }
+        new Factory(type).generate().ifPresent(source -> write(type, source));
+    }
+
+    private void write(TypeElement type, String source) {
+        try (Writer writer = processingEnv.getFiler().createSourceFile(factoryName(type), type).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), type);
+        }
+    }
+
+    private String factoryName(TypeElement type) {
+        String packageName = packageOf(type).getQualifiedName().toString();
+        return packageName.isEmpty() ? simpleName(type) : packageName + "." + simpleName(type);
+    }
+
+    private static String simpleName(TypeElement type) {
+        String name = type.getSimpleName().toString();
+        for (Element current = type.getEnclosingElement(); current instanceof TypeElement; current = current.getEnclosingElement()) {
+            name = current.getSimpleName() + "_" + name;
+        }
+        return name + SUFFIX;
+    }
+
+    private PackageElement packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    private class Factory {
+        private final TypeElement type;
+        private final List<String> dependencies = new ArrayList<>();
+        private final List<String> statements = new ArrayList<>();
+        private int index = 0;
+
+        Factory(TypeElement type) {
+            this.type = type;
+        }
+
+        Optional<String> generate() {
+            if (!isConcreteClass(type) || !hasInjectionPoint()) return Optional.empty();
+            try {
+                constructor();
+                fields();
+                methods();
+            } catch (NotGenerated e) {
+                return Optional.empty();
+            }
+            return Optional.of(source());
+        }
+
+        private boolean hasInjectionPoint() {
+            for (TypeElement current = type; current != null; current = superclass(current)) {
+                if (current.getEnclosedElements().stream().anyMatch(this::isInjectable)) return true;
+            }
+            return false;
+        }
+
+        private void constructor() {
+            List<ExecutableElement> injectConstructors = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                    .filter(c -> c.getModifiers().contains(Modifier.PUBLIC) && isInjectable(c)).toList();
+            if (injectConstructors.size() > 1) throw new NotGenerated();
+            ExecutableElement constructor = injectConstructors.stream().findFirst().orElseGet(() ->
+                    ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                            .filter(c -> c.getParameters().isEmpty()).findFirst().orElseThrow(NotGenerated::new));
+            if (!isAccessible(constructor)) throw new NotGenerated();
+            String qualified = type.getQualifiedName().toString();
+            statements.add(qualified + " instance = new " + qualified + "(" + arguments(type, constructor) + ");");
+        }
+
+        private void fields() {
+            for (TypeElement current = type; current != null; current = superclass(current)) {
+                for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                    if (!isInjectable(field)) continue;
+                    if (field.getModifiers().contains(Modifier.FINAL) || field.getModifiers().contains(Modifier.STATIC) || !isAccessible(field))
+                        throw new NotGenerated();
+                    String dependency = dependency(field.asType(), qualifier(field,
+                            current.getQualifiedName() + ".class.getDeclaredField(\"" + field.getSimpleName() + "\")"));
+                    String target = current == type ? "instance" : "((" + current.getQualifiedName() + ") instance)";
+                    statements.add(target + "." + field.getSimpleName() + " = " + dependency + ";");
+                }
+            }
+        }
+
+        private void methods() {
+            List<ExecutableElement> injectMethods = new ArrayList<>();
+            List<TypeElement> declaring = new ArrayList<>();
+            for (TypeElement current = type; current != null; current = superclass(current)) {
+                for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                    if (!isInjectable(method)) continue;
+                    if (injectMethods.stream().anyMatch(m -> isOverride(method, m))) continue;
+                    if (ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                            .filter(m -> !isInjectable(m)).anyMatch(m -> isOverride(method, m))) continue;
+                    if (!method.getTypeParameters().isEmpty() || method.getModifiers().contains(Modifier.STATIC) || !isAccessible(method))
+                        throw new NotGenerated();
+                    injectMethods.add(method);
+                    declaring.add(current);
+                }
+            }
+            for (int i = injectMethods.size() - 1; i >= 0; i--) {
+                ExecutableElement method = injectMethods.get(i);
+                statements.add("instance." + method.getSimpleName() + "(" + arguments(declaring.get(i), method) + ");");
+            }
+        }
+
+        private String arguments(TypeElement declaring, ExecutableElement executable) {
+            StringJoiner arguments = new StringJoiner(", ");
+            String reflected = declaring.getQualifiedName() + ".class.getDeclared"
+                    + (executable.getKind() == ElementKind.CONSTRUCTOR ? "Constructor(" : "Method(\"" + executable.getSimpleName() + "\"" + (executable.getParameters().isEmpty() ? "" : ", "))
+                    + String.join(", ", executable.getParameters().stream().map(p -> erasure(p.asType()) + ".class").toList()) + ")";
+            List<? extends VariableElement> parameters = executable.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                VariableElement parameter = parameters.get(i);
+                arguments.add(dependency(parameter.asType(), qualifier(parameter, reflected + ".getParameters()[" + i + "]")));
+            }
+            return arguments.toString();
+        }
+
+        private String dependency(TypeMirror type, String qualifier) {
+            if (!isNameable(type)) throw new NotGenerated();
+            if (type instanceof DeclaredType declared && !declared.getTypeArguments().isEmpty()) {
+                TypeMirror component = declared.getTypeArguments().get(0);
+                if (!(component instanceof DeclaredType argument) || !argument.getTypeArguments().isEmpty() || !isNameable(component))
+                    throw new NotGenerated();
+                dependencies.add("geektime.tdd.di.ComponentRef.of(" + erasure(type) + ".class, " + erasure(component) + ".class, " + qualifier + ")");
+            } else {
+                dependencies.add("geektime.tdd.di.ComponentRef.of(" + erasure(type) + ".class, " + qualifier + ")");
+            }
+            return "(" + type + ") dependencies[" + index++ + "]";
+        }
+
+        private String qualifier(Element element, String reflected) {
+            List<? extends AnnotationMirror> qualifiers = element.getAnnotationMirrors().stream()
+                    .filter(a -> a.getAnnotationType().asElement().getAnnotationMirrors().stream().anyMatch(m -> is(m, QUALIFIER))).toList();
+            if (qualifiers.size() > 1) throw new NotGenerated();
+            return qualifiers.stream().findFirst()
+                    .map(q -> reflected + ".getAnnotation(" + erasure(q.getAnnotationType()) + ".class)").orElse("null");
+        }
+
+        private String source() {
+            String packageName = packageOf(type).getQualifiedName().toString();
+            String qualified = type.getQualifiedName().toString();
+            boolean reflective = dependencies.stream().anyMatch(d -> d.contains(".class.getDeclared"));
+            StringBuilder source = new StringBuilder();
+            if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+            source.append("@javax.annotation.processing.Generated(\"").append(InjectProcessor.class.getName()).append("\")\n")
+                    .append("public final class ").append(simpleName(type))
+                    .append(" implements geektime.tdd.di.ComponentFactory<").append(qualified).append("> {\n")
+                    .append("    private static final java.util.List<geektime.tdd.di.ComponentRef<?>> DEPENDENCIES = dependencies();\n\n")
+                    .append("    private static java.util.List<geektime.tdd.di.ComponentRef<?>> dependencies() {\n");
+            String indent = reflective ? "\n                    " : "\n                ";
+            String list = "java.util.List.<geektime.tdd.di.ComponentRef<?>>of(" + (dependencies.isEmpty() ? "" : indent + String.join("," + indent, dependencies)) + ")";
+            if (reflective) {
+                source.append("        try {\n")
+                        .append("            return ").append(list).append(";\n")
+                        .append("        } catch (ReflectiveOperationException e) {\n")
+                        .append("            throw new IllegalStateException(e);\n")
+                        .append("        }\n");
+            } else {
+                source.append("        return ").append(list).append(";\n");
+            }
+            source.append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    public java.util.List<geektime.tdd.di.ComponentRef<?>> getDependencies() {\n")
+                    .append("        return DEPENDENCIES;\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    @SuppressWarnings(\"unchecked\")\n")
+                    .append("    public ").append(qualified).append(" create(Object[] dependencies) throws Exception {\n");
+            for (String statement : statements) source.append("        ").append(statement).append("\n");
+            source.append("        return instance;\n")
+                    .append("    }\n")
+                    .append("}\n");
+            return source.toString();
+        }
+
+        private boolean isConcreteClass(TypeElement type) {
+            if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) return false;
+            if (!type.getTypeParameters().isEmpty()) return false;
+            if (type.getEnclosingElement() instanceof TypeElement && !type.getModifiers().contains(Modifier.STATIC)) return false;
+            return isNameable(type.asType());
+        }
+
+        private boolean isAccessible(Element member) {
+            Set<Modifier> modifiers = member.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) return false;
+            return modifiers.contains(Modifier.PUBLIC) || packageOf(member).equals(packageOf(type));
+        }
+
+        private boolean isNameable(TypeMirror type) {
+            if (type.getKind().isPrimitive()) return true;
+            if (type.getKind() == TypeKind.ARRAY) return true;
+            if (!(type instanceof DeclaredType declared)) return false;
+            for (Element current = declared.asElement(); current instanceof TypeElement; current = current.getEnclosingElement()) {
+                if (current.getModifiers().contains(Modifier.PRIVATE)) return false;
+            }
+            return true;
+        }
+
+        private boolean isInjectable(Element element) {
+            return element.getAnnotationMirrors().stream().anyMatch(a -> is(a, INJECT));
+        }
+
+        private boolean isOverride(ExecutableElement m, ExecutableElement o) {
+            if (!m.getSimpleName().equals(o.getSimpleName()) || m.getParameters().size() != o.getParameters().size()) return false;
+            for (int i = 0; i < m.getParameters().size(); i++) {
+                if (!erasure(m.getParameters().get(i).asType()).equals(erasure(o.getParameters().get(i).asType()))) return false;
+            }
+            return true;
+        }
+
+        private TypeElement superclass(TypeElement current) {
+            if (!(current.getSuperclass() instanceof DeclaredType superclass)) return null;
+            TypeElement element = (TypeElement) superclass.asElement();
+            return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+        }
+
+        private String erasure(TypeMirror type) {
+            return processingEnv.getTypeUtils().erasure(type).toString();
+        }
+    }
+
+    private static boolean is(AnnotationMirror annotation, String type) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(type);
+    }
+
+    private static class NotGenerated extends RuntimeException {
+        NotGenerated() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package geektime.tdd.di.processor;
+
+import geektime.tdd.di.ComponentFactory;
+import geektime.tdd.di.ComponentRef;
+import geektime.tdd.di.ContextConfig;
+import geektime.tdd.di.InjectionProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.*;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InjectProcessorTest {
+    @TempDir
+    Path output;
+
+    ClassLoader loader;
+
+    static final Map<String, String> SOURCES = Map.of(
+            "sample.Dependency", """
+                    package sample;
+                    public interface Dependency {
+                    }
+                    """,
+            "sample.Component", """
+                    package sample;
+                    import jakarta.inject.*;
+                    public class Component {
+                        public Dependency constructor;
+                        @Inject @Named("field") Dependency field;
+                        public Provider<Dependency> method;
+
+                        @Inject
+                        public Component(Dependency dependency) {
+                            this.constructor = dependency;
+                        }
+
+                        @Inject
+                        void install(Provider<Dependency> dependency) {
+                            this.method = dependency;
+                        }
+
+                        public Dependency field() {
+                            return field;
+                        }
+                    }
+                    """,
+            "sample.Subclass", """
+                    package sample;
+                    import jakarta.inject.*;
+                    public class Subclass extends Component {
+                        public int installed = 0;
+
+                        @Inject
+                        public Subclass(Dependency dependency) {
+                            super(dependency);
+                        }
+
+                        void install(Provider<Dependency> dependency) {
+                            installed++;
+                        }
+
+                        public static class Nested {
+                            @Inject Dependency dependency;
+                        }
+                    }
+                    """,
+            "sample.PrivateField", """
+                    package sample;
+                    import jakarta.inject.*;
+                    public class PrivateField {
+                        @Inject private Dependency dependency;
+                    }
+                    """);
+
+    @BeforeEach
+    public void compile() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null);
+        files.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(output));
+        files.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(output));
+        List<JavaFileObject> sources = SOURCES.entrySet().stream().<JavaFileObject>map(e -> new SimpleJavaFileObject(
+                URI.create("string:///" + e.getKey().replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return e.getValue();
+            }
+        }).toList();
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics,
+                List.of("-classpath", System.getProperty("java.class.path")), null, sources);
+        task.setProcessors(List.of(new InjectProcessor()));
+
+        assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+        loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    @Test
+    public void should_generate_factory_for_inject_class() {
+        assertTrue(Files.exists(output.resolve("sample/Component_Factory.java")));
+        assertTrue(Files.exists(output.resolve("sample/Subclass_Nested_Factory.java")));
+    }
+
+    @Test
+    public void should_not_generate_factory_if_injection_point_not_accessible() {
+        assertFalse(Files.exists(output.resolve("sample/PrivateField_Factory.java")));
+    }
+
+    @Test
+    public void should_report_same_dependencies_as_injection_provider() throws Exception {
+        for (String name : List.of("sample.Component", "sample.Subclass", "sample.Subclass$Nested")) {
+            Class<?> component = loader.loadClass(name);
+            assertEquals(new InjectionProvider<>(component).getDependencies(), factory(component).getDependencies());
+        }
+    }
+
+    @Test
+    public void should_create_component_with_dependencies() throws Exception {
+        Class<?> component = loader.loadClass("sample.Component");
+        Class<?> dependencyType = loader.loadClass("sample.Dependency");
+        Object dependency = proxy(dependencyType);
+        jakarta.inject.Provider<?> provider = () -> dependency;
+
+        Object instance = factory(component).create(new Object[]{dependency, dependency, provider});
+
+        assertSame(dependency, component.getField("constructor").get(instance));
+        assertSame(dependency, component.getMethod("field").invoke(instance));
+        assertSame(provider, component.getField("method").get(instance));
+    }
+
+    @Test
+    public void should_not_call_inject_method_overridden_without_inject() throws Exception {
+        Class<?> subclass = loader.loadClass("sample.Subclass");
+        Object dependency = proxy(loader.loadClass("sample.Dependency"));
+
+        Object instance = factory(subclass).create(new Object[]{dependency, dependency});
+
+        assertEquals(0, subclass.getField("installed").get(instance));
+        assertNull(subclass.getField("method").get(instance));
+    }
+
+    @Test
+    public void should_bind_component_with_generated_factory() throws Exception {
+        Class<Object> component = (Class<Object>) loader.loadClass("sample.Component");
+        Class<Object> dependencyType = (Class<Object>) loader.loadClass("sample.Dependency");
+        Object dependency = proxy(dependencyType);
+
+        ContextConfig config = new ContextConfig();
+        config.bind(dependencyType, dependency);
+        config.bind(dependencyType, dependency, new jakarta.inject.Named() {
+            @Override
+            public String value() {
+                return "field";
+            }
+
+            @Override
+            public Class<? extends java.lang.annotation.Annotation> annotationType() {
+                return jakarta.inject.Named.class;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof jakarta.inject.Named named && named.value().equals("field");
+            }
+
+            @Override
+            public int hashCode() {
+                return "value".hashCode() * 127 ^ "field".hashCode();
+            }
+        });
+        bindComponent(config, component);
+
+        Object instance = config.getContext().get(ComponentRef.of(component)).get();
+
+        assertSame(dependency, component.getField("constructor").get(instance));
+        assertSame(dependency, component.getMethod("field").invoke(instance));
+        assertSame(dependency, ((jakarta.inject.Provider<?>) component.getField("method").get(instance)).get());
+    }
+
+    private static <T> void bindComponent(ContextConfig config, Class<T> component) {
+        config.bind(component, component);
+    }
+
+    private ComponentFactory<?> factory(Class<?> component) throws Exception {
+        return (ComponentFactory<?>) loader.loadClass(component.getName().replace('$', '_') + InjectProcessor.SUFFIX)
+                .getConstructor().newInstance();
+    }
+
+    private Object proxy(Class<?> type) {
+        return java.lang.reflect.Proxy.newProxyInstance(loader, new Class[]{type}, (p, m, a) -> switch (m.getName()) {
+            case "hashCode" -> System.identityHashCode(p);
+            case "equals" -> p == a[0];
+            default -> null;
+        });
+    }
+}
@@ -1,2 +1,3 @@
 rootProject.name = "di"
-
+include("processor")
+include("benchmark")
@@ -0,0 +1,67 @@
+package geektime.tdd.di;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AsyncSingletonProvider<T> implements ComponentProvider<T> {
+
+    private final ComponentProvider<T> provider;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    public AsyncSingletonProvider(ComponentProvider<T> provider) {
+        this.provider = provider;
+    }
+
+    public CompletableFuture<T> future(Context context, Executor executor) {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> construct(context));
+            } catch (RejectedExecutionException exception) {
+                if (claimed.compareAndSet(false, true)) future.completeExceptionally(exception);
+            }
+        }
+        return future;
+    }
+
+    private void construct(Context context) {
+        if (!claimed.compareAndSet(false, true)) return;
+        try {
+            future.complete(provider.get(context));
+        } catch (Throwable exception) {
+            future.completeExceptionally(exception);
+        }
+    }
+
+    @Override
+    public T get(Context context) {
+        construct(context);
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) throw cause;
+            if (exception.getCause() instanceof Error cause) throw cause;
+            throw exception;
+        }
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new AsyncSingletonProvider<>(provider.copy());
+    }
+
+    @Override
+    public void link(Linker linker) {
+        provider.link(linker);
+    }
+}
@@ -0,0 +1,37 @@
+package geektime.tdd.di;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+final class CompiledProvider implements ComponentProvider<Object> {
+    private static final MethodHandle FACTORY;
+    private static final ComponentProvider<?> PROVIDER;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FACTORY = MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class, 0);
+            PROVIDER = MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, ComponentProvider.class, 1);
+        } catch (IllegalAccessException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    @Override
+    public Object get(Context context) {
+        try {
+            return (Object) FACTORY.invokeExact(context);
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return PROVIDER.getDependencies();
+    }
+}
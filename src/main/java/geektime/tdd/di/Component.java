@@ -1,6 +1,105 @@
 package geektime.tdd.di;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
-public record Component(Class<?> type, Annotation qualifier) {
+public final class Component {
+    private static final ClassValue<WeakReference<Component>> unqualified = new ClassValue<>() {
+        @Override
+        protected WeakReference<Component> computeValue(Class<?> type) {
+            return new WeakReference<>(new Component(type, null));
+        }
+    };
+
+    private static final Map<Interned, Interned> qualified = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Component> collected = new ReferenceQueue<>();
+
+    private final Class<?> type;
+    private final Annotation qualifier;
+    private final int hash;
+
+    public Component(Class<?> type, Annotation qualifier) {
+        this.type = type;
+        this.qualifier = qualifier;
+        this.hash = 31 * type.hashCode() + Objects.hashCode(qualifier);
+    }
+
+    static Component of(Class<?> type, Annotation qualifier) {
+        if (qualifier == null) return unqualified(type);
+        Component component = new Component(type, qualifier);
+        Interned existing = qualified.get(new Interned(component, null));
+        Component interned = existing == null ? null : existing.get();
+        if (interned != null) return interned;
+        expunge();
+        Interned created = new Interned(component, collected);
+        for (; ; ) {
+            existing = qualified.putIfAbsent(created, created);
+            if (existing == null) return component;
+            interned = existing.get();
+            if (interned != null) return interned;
+            qualified.remove(existing, existing);
+        }
+    }
+
+    private static Component unqualified(Class<?> type) {
+        Component component = unqualified.get(type).get();
+        if (component != null) return component;
+        unqualified.remove(type);
+        return unqualified(type);
+    }
+
+    private static void expunge() {
+        for (Object stale; (stale = collected.poll()) != null; ) qualified.remove(stale, stale);
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+
+    public Annotation qualifier() {
+        return qualifier;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Component that)) return false;
+        return hash == that.hash && type == that.type && (qualifier == that.qualifier || Objects.equals(qualifier, that.qualifier));
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "Component[type=" + type + ", qualifier=" + qualifier + "]";
+    }
+
+    private static final class Interned extends WeakReference<Component> {
+        private final int hash;
+
+        Interned(Component component, ReferenceQueue<Component> queue) {
+            super(component, queue);
+            this.hash = component.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Interned that) || hash != that.hash) return false;
+            Component component = get();
+            return component != null && component.equals(that.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
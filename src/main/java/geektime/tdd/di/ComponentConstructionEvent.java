@@ -0,0 +1,25 @@
+package geektime.tdd.di;
+
+import jdk.jfr.*;
+
+@Name("geektime.tdd.di.ComponentConstruction")
+@Label("Component Construction")
+@Category("Dependency Injection")
+@Description("Construction of a component that took longer than the configured threshold")
+@StackTrace(false)
+class ComponentConstructionEvent extends Event {
+    @Label("Implementation")
+    Class<?> implementation;
+
+    @Label("Construction Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long constructionTime;
+
+    static void commit(Class<?> implementation, long constructionTime) {
+        ComponentConstructionEvent event = new ComponentConstructionEvent();
+        if (!event.isEnabled()) return;
+        event.implementation = implementation;
+        event.constructionTime = constructionTime;
+        event.commit();
+    }
+}
@@ -0,0 +1,9 @@
+package geektime.tdd.di;
+
+import java.util.List;
+
+public interface ComponentFactory<T> {
+    T create(Object[] dependencies) throws Exception;
+
+    List<ComponentRef<?>> getDependencies();
+}
@@ -0,0 +1,88 @@
+package geektime.tdd.di;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ComponentMetrics {
+    private final long slowThreshold;
+    private final Map<Component, Stats> components = new ConcurrentHashMap<>();
+
+    public ComponentMetrics(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold.toNanos();
+    }
+
+    public Optional<Stats> get(Component component) {
+        return Optional.ofNullable(components.get(component));
+    }
+
+    public Map<Component, Stats> components() {
+        return Map.copyOf(components);
+    }
+
+    Stats stats(Class<?> implementation) {
+        return new Stats(implementation, slowThreshold);
+    }
+
+    void register(Stats stats, List<Component> bound) {
+        bound.forEach(component -> components.put(component, stats));
+    }
+
+    public static final class Stats {
+        private static final int BUCKETS = 64;
+
+        private final Class<?> implementation;
+        private final long slowThreshold;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder created = new LongAdder();
+        private final LongAdder constructionTime = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        private Stats(Class<?> implementation, long slowThreshold) {
+            this.implementation = implementation;
+            this.slowThreshold = slowThreshold;
+            for (int i = 0; i < BUCKETS; i++) histogram[i] = new LongAdder();
+        }
+
+        public Class<?> implementation() {
+            return implementation;
+        }
+
+        public long requests() {
+            return requests.sum();
+        }
+
+        public long created() {
+            return created.sum();
+        }
+
+        public long hits() {
+            return Math.max(0, requests() - created());
+        }
+
+        public Duration constructionTime() {
+            return Duration.ofNanos(constructionTime.sum());
+        }
+
+        public long[] histogram() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) counts[i] = histogram[i].sum();
+            return counts;
+        }
+
+        void requested() {
+            requests.increment();
+        }
+
+        void created(long start, long end) {
+            long elapsed = end - start;
+            created.increment();
+            constructionTime.add(elapsed);
+            histogram[elapsed <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(elapsed)].increment();
+            if (elapsed >= slowThreshold) ComponentConstructionEvent.commit(implementation, elapsed);
+        }
+    }
+}
@@ -10,4 +10,15 @@ interface ComponentProvider<T> {
     default List<ComponentRef<?>> getDependencies() {
         return of();
     }
+
+    default ComponentProvider<T> copy() {
+        return this;
+    }
+
+    default void link(Linker linker) {
+    }
+
+    interface Linker {
+        ComponentProvider<?> provider(ComponentRef<?> dependency);
+    }
 }
@@ -1,37 +1,62 @@
 package geektime.tdd.di;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
 public class ComponentRef<ComponentType> {
 
+    private static final ClassValue<WeakReference<ComponentRef<?>>> interned = new ClassValue<>() {
+        @Override
+        protected WeakReference<ComponentRef<?>> computeValue(Class<?> type) {
+            return new WeakReference<>(new ComponentRef<>(null, Component.of(type, null)));
+        }
+    };
+
     public static <ComponentType> ComponentRef<ComponentType> of(Class<ComponentType> component) {
-        return new ComponentRef(component, null);
+        ComponentRef<?> ref = interned.get(component).get();
+        if (ref != null) return (ComponentRef<ComponentType>) ref;
+        interned.remove(component);
+        return of(component);
     }
 
     public static <ComponentType> ComponentRef<ComponentType> of(Class<ComponentType> type, Annotation qualifier) {
+        if (qualifier == null) return of(type);
         return new ComponentRef(type, qualifier);
     }
 
     public static ComponentRef of(Type type) {
-        return new ComponentRef(type, null);
+        return of(type, null);
     }
 
     public static ComponentRef of(Type type, Annotation qualifier) {
+        if (type instanceof Class<?> component) return of(component, qualifier);
         return new ComponentRef(type, qualifier);
     }
 
+    public static ComponentRef of(Class<?> container, Class<?> type, Annotation qualifier) {
+        return new ComponentRef(container, Component.of(type, qualifier));
+    }
+
 
     private Type container;
 
     private Component component;
 
+    private int hash;
+
     ComponentRef(Type type, Annotation qualifier) {
         init(type, qualifier);
     }
 
+    private ComponentRef(Type container, Component component) {
+        this.container = container;
+        this.component = component;
+        this.hash = 31 * Objects.hashCode(container) + component.hashCode();
+    }
+
     protected ComponentRef() {
         Type type = ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
         init(type, null);
@@ -45,10 +70,11 @@ public class ComponentRef<ComponentType> {
     private void init(Type type, Annotation qualifier) {
         if (type instanceof ParameterizedType containerType) {
             this.container = containerType.getRawType();
-            this.component = new Component((Class<ComponentType>) containerType.getActualTypeArguments()[0], qualifier);
+            this.component = Component.of((Class<ComponentType>) containerType.getActualTypeArguments()[0], qualifier);
         } else {
-            this.component = new Component((Class<ComponentType>) type, qualifier);
+            this.component = Component.of((Class<ComponentType>) type, qualifier);
         }
+        this.hash = 31 * Objects.hashCode(container) + component.hashCode();
     }
 
     public Type getContainer() {
@@ -69,11 +95,11 @@ public class ComponentRef<ComponentType> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ComponentRef<?> that = (ComponentRef<?>) o;
-        return Objects.equals(container, that.container) && Objects.equals(component, that.component);
+        return hash == that.hash && Objects.equals(container, that.container) && component.equals(that.component);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(container, component);
+        return hash;
     }
 }
@@ -0,0 +1,68 @@
+package geektime.tdd.di;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+final class ComponentRegistry {
+    private final Component[] components;
+    private final ComponentProvider<?>[] providers;
+    private final int[] index;
+    private final int mask;
+
+    ComponentRegistry(Map<Component, ComponentProvider<?>> bindings) {
+        int size = bindings.size();
+        components = new Component[size];
+        providers = new ComponentProvider<?>[size];
+        index = new int[Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1];
+        mask = index.length - 1;
+        Map<ComponentProvider<?>, ComponentProvider<?>> copies = new IdentityHashMap<>();
+        int id = 0;
+        for (Map.Entry<Component, ComponentProvider<?>> binding : bindings.entrySet()) {
+            components[id] = binding.getKey();
+            providers[id] = copies.computeIfAbsent(binding.getValue(), ComponentProvider::copy);
+            int slot = slot(binding.getKey());
+            while (index[slot] != 0) slot = (slot + 1) & mask;
+            index[slot] = ++id;
+        }
+    }
+
+    int id(Component component) {
+        for (int slot = slot(component); ; slot = (slot + 1) & mask) {
+            int id = index[slot] - 1;
+            if (id < 0) return -1;
+            Component candidate = components[id];
+            if (candidate == component || candidate.equals(component)) return id;
+        }
+    }
+
+    ComponentProvider<?> get(Component component) {
+        int id = id(component);
+        return id < 0 ? null : providers[id];
+    }
+
+    ComponentProvider<?> provider(int id) {
+        return providers[id];
+    }
+
+    void replace(int id, ComponentProvider<?> provider) {
+        providers[id] = provider;
+    }
+
+    Component component(int id) {
+        return components[id];
+    }
+
+    int size() {
+        return providers.length;
+    }
+
+    void forEach(BiConsumer<Component, ComponentProvider<?>> action) {
+        for (int id = 0; id < providers.length; id++) action.accept(components[id], providers[id]);
+    }
+
+    private int slot(Component component) {
+        int hash = component.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,22 @@
+package geektime.tdd.di;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+final class ConstantInjector implements InjectionEngine.Injector {
+    private static final MethodHandle HANDLE;
+
+    static {
+        try {
+            HANDLE = MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    @Override
+    public Object inject(Object instance, Object[] dependencies) throws Throwable {
+        return (Object) HANDLE.invokeExact(instance, dependencies);
+    }
+}
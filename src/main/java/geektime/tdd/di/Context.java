@@ -1,9 +1,20 @@
 package geektime.tdd.di;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 public interface Context {
 
     <ComponentType> Optional<ComponentType> get(ComponentRef<ComponentType> componentRef);
 
+    default <ComponentType> ComponentType require(ComponentRef<ComponentType> componentRef) {
+        return get(componentRef).orElseThrow(() -> new DependencyNotFoundException(componentRef.component()));
+    }
+
+    default WarmUp warmUp(Executor executor) {
+        return new WarmUp(Duration.ZERO, Map.of());
+    }
+
 }
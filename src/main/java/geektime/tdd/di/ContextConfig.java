@@ -1,6 +1,5 @@
 package geektime.tdd.di;
 
-import jakarta.inject.Provider;
 import jakarta.inject.Qualifier;
 import jakarta.inject.Scope;
 import jakarta.inject.Singleton;
@@ -8,7 +7,11 @@ import jakarta.inject.Singleton;
 import java.lang.annotation.Annotation;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.List.of;
@@ -16,14 +19,26 @@ import static java.util.List.of;
 public class ContextConfig {
 
     private final Map<Component, ComponentProvider<?>> components = new HashMap<>();
+    private final Set<Component> verified = new HashSet<>();
+    private final Set<Component> unverified = new LinkedHashSet<>();
+    private final Map<Component, Set<Component>> dependents = new HashMap<>();
     private final Map<Class<?>, ScopeProvider> scopes = new HashMap<>();
+    private InjectionEngine engine = InjectionEngine.REFLECTION;
+    private ComponentMetrics metrics;
+    private Executor executor = ForkJoinPool.commonPool();
+    private boolean compile;
 
     public ContextConfig() {
         scopes.put(Singleton.class, SingletonProvider::new);
+        scopes.put(ThreadScoped.class, ThreadScopedProvider::new);
+        scopes.put(RequestScoped.class, RequestScopedProvider::new);
+        scopes.put(AsyncSingleton.class, AsyncSingletonProvider::new);
+        scopes.put(SoftSingleton.class, ReferenceScope.soft());
+        scopes.put(WeakSingleton.class, ReferenceScope.weak());
     }
 
     public <Type> void bind(Class<Type> type, Type instance) {
-        components.put(new Component(type, null), (ComponentProvider<Type>) context -> instance);
+        put(Component.of(type, null), (ComponentProvider<Type>) context -> instance);
     }
 
     public <Type> void bind(Class<Type> type, Type instance, Annotation... qualifiers) {
@@ -31,7 +46,7 @@ public class ContextConfig {
             throw new IllegalComponentException();
         }
         for (Annotation qualifier : qualifiers) {
-            components.put(new Component(type, qualifier), (ComponentProvider<Type>) context -> instance);
+            put(Component.of(type, qualifier), (ComponentProvider<Type>) context -> instance);
         }
     }
 
@@ -40,30 +55,90 @@ public class ContextConfig {
     }
 
     public <Type, Implementation extends Type> void bind(Class<Type> type, Class<Implementation> implementation, Annotation... annotations) {
+        merge(analyze(type, implementation, annotations));
+    }
+
+    public Batch batch() {
+        return new Batch();
+    }
+
+    public class Batch {
+        private final List<Binding> bindings = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        public <Type, Implementation extends Type> Batch bind(Class<Type> type, Class<Implementation> implementation) {
+            return bind(type, implementation, implementation.getAnnotations());
+        }
+
+        public <Type, Implementation extends Type> Batch bind(Class<Type> type, Class<Implementation> implementation, Annotation... annotations) {
+            bindings.add(new Binding(type, implementation, annotations));
+            return this;
+        }
+
+        public void commit() {
+            commit(ForkJoinPool.commonPool());
+        }
+
+        public void commit(ForkJoinPool pool) {
+            Analyzed[] analyzed = new Analyzed[bindings.size()];
+            RuntimeException[] errors = new RuntimeException[bindings.size()];
+            pool.submit(() -> IntStream.range(0, bindings.size()).parallel().forEach(i -> {
+                Binding binding = bindings.get(i);
+                try {
+                    analyzed[i] = analyze(binding.type(), binding.implementation(), binding.annotations());
+                } catch (RuntimeException e) {
+                    errors[i] = e;
+                }
+            })).join();
+            List<RuntimeException> failures = Arrays.stream(errors).filter(Objects::nonNull).toList();
+            if (!failures.isEmpty()) throw new IllegalBindingsException(failures);
+            for (Analyzed binding : analyzed) merge(binding);
+            bindings.clear();
+        }
+    }
+
+    private record Binding(Class<?> type, Class<?> implementation, Annotation[] annotations) {
+    }
+
+    private record Analyzed(Class<?> type, List<Annotation> qualifiers, ComponentProvider<?> provider, ComponentMetrics.Stats stats) {
+    }
+
+    private Analyzed analyze(Class<?> type, Class<?> implementation, Annotation... annotations) {
         Map<Class<?>, List<Annotation>> annotationGroups = Arrays.stream(annotations).collect(Collectors.groupingBy(ContextConfig::typeOf, Collectors.toList()));
 
         if (annotationGroups.containsKey(Illegal.class)) {
             throw new IllegalComponentException();
         }
 
-        bind(type, annotationGroups.getOrDefault(Qualifier.class,of()),
-                createScopeProvider(implementation, annotationGroups.getOrDefault(Scope.class, of())));
+        List<Annotation> qualifiers = annotationGroups.getOrDefault(Qualifier.class, of());
+        ComponentMetrics.Stats stats = metrics == null ? null : metrics.stats(implementation);
+        return new Analyzed(type, qualifiers, createScopeProvider(implementation, annotationGroups.getOrDefault(Scope.class, of()), stats), stats);
+    }
+
+    private void merge(Analyzed analyzed) {
+        if (analyzed.stats() != null)
+            metrics.register(analyzed.stats(), analyzed.qualifiers().isEmpty() ? of(Component.of(analyzed.type(), null))
+                    : analyzed.qualifiers().stream().map(qualifier -> Component.of(analyzed.type(), qualifier)).toList());
+        bind(analyzed.type(), analyzed.qualifiers(), analyzed.provider());
     }
 
-    private <Type> ComponentProvider<?> createScopeProvider(Class<Type> implementation, List<Annotation> scopes) {
+    private <Type> ComponentProvider<?> createScopeProvider(Class<Type> implementation, List<Annotation> scopes, ComponentMetrics.Stats stats) {
         if (scopes.size() > 1) {
             throw new IllegalComponentException();
         }
-        ComponentProvider<?> injectionProvider = new InjectionProvider<>(implementation);
-        return scopes.stream().findFirst().or(()-> scopeFrom(implementation))
-                .<ComponentProvider<?>>map(s -> getScopeProvider(s,injectionProvider)).orElse(injectionProvider);
+        ComponentProvider<?> injectionProvider = InstrumentedProvider.constructions(stats,
+                FactoryProvider.of(implementation).orElseGet(() -> new InjectionProvider<>(implementation, engine)));
+        return InstrumentedProvider.requests(stats, scopes.stream().findFirst().or(()-> scopeFrom(implementation))
+                .<ComponentProvider<?>>map(s -> getScopeProvider(s,injectionProvider)).orElse(injectionProvider));
     }
 
-    private <Type> void bind(Class<Type> type, List<Annotation> qualifiers, ComponentProvider<?> provider) {
+    <Type> void bind(Class<Type> type, List<Annotation> qualifiers, ComponentProvider<?> provider) {
         if (qualifiers.isEmpty())
-            components.put(new Component(type, null), provider);
+            put(Component.of(type, null), provider);
         for (Annotation qualifier : qualifiers) {
-            components.put(new Component(type, qualifier), provider);
+            put(Component.of(type, qualifier), provider);
         }
     }
 
@@ -89,39 +164,107 @@ public class ContextConfig {
         scopes.put(scope, provider);
     }
 
+    public Optional<ScopeProvider> scope(Class<? extends Annotation> scope) {
+        return Optional.ofNullable(scopes.get(scope));
+    }
+
+    public void engine(InjectionEngine engine) {
+        this.engine = engine;
+    }
+
+    public void metrics(ComponentMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void executor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public void compile(boolean compile) {
+        this.compile = compile;
+    }
+
     public Context getContext() {
-        components.keySet().forEach(component -> checkDependencies(component, new Stack<>()));
-        return new Context() {
-
-            @Override
-            public <ComponentType> Optional<ComponentType> get(ComponentRef<ComponentType> ref) {
-                if (ref.isContainer()) {
-                    if (ref.getContainer() != Provider.class) return Optional.empty();
-                    return (Optional<ComponentType>) Optional.ofNullable(getProvider(ref))
-                            .map(provider -> (Provider<Object>) () -> (ComponentType) provider.get(this));
-                }
-                return Optional.ofNullable(getProvider(ref)).map(provider -> (ComponentType) provider.get(this));
-            }
+        checkDependencies(null);
+        return FrozenContext.of(new ComponentRegistry(components), null, executor, compile);
+    }
 
-        };
+    public Context getContext(Context parent) {
+        if (!(parent instanceof FrozenContext frozen))
+            throw new IllegalArgumentException("parent must be created by ContextConfig.getContext");
+        for (Component component : components.keySet()) {
+            if (frozen.provider(component) != null) throw new IllegalComponentException();
+        }
+        checkDependencies(frozen);
+        return FrozenContext.of(new ComponentRegistry(components), frozen, executor, compile);
     }
 
-    private <ComponentType> ComponentProvider<?> getProvider(ComponentRef<ComponentType> componentRef) {
-        return components.get(componentRef.component());
+    private void put(Component component, ComponentProvider<?> provider) {
+        ComponentProvider<?> replaced = components.put(component, provider);
+        unverified.add(component);
+        if (replaced == null) return;
+        for (ComponentRef<?> dependency : replaced.getDependencies()) {
+            Set<Component> users = dependents.get(dependency.component());
+            if (users != null) users.remove(component);
+        }
+        Set<Component> visited = new HashSet<>();
+        Deque<Component> invalidated = new ArrayDeque<>(of(component));
+        while (!invalidated.isEmpty()) {
+            Component invalid = invalidated.pop();
+            if (!visited.add(invalid)) continue;
+            verified.remove(invalid);
+            unverified.add(invalid);
+            invalidated.addAll(dependents.getOrDefault(invalid, Set.of()));
+        }
     }
 
-    private void checkDependencies(Component component, Stack<Component> visiting) {
-        for (ComponentRef dependency : components.get(component).getDependencies()) {
-            if (!components.containsKey(dependency.component()))
-                throw new DependencyNotFoundException(component, dependency.component());
-            if (!dependency.isContainer()) {
-                if (visiting.contains(dependency.component()))
-                    throw new CyclicDependenciesFoundException(visiting);
-                visiting.push(dependency.component());
-                checkDependencies(dependency.component(), visiting);
-                visiting.pop();
+    private void checkDependencies(FrozenContext parent) {
+        Set<Component> checked = parent == null ? verified : new HashSet<>();
+        Collection<Component> roots = parent == null ? List.copyOf(unverified) : components.keySet();
+        Set<Component> inProgress = new HashSet<>();
+        List<Component> visiting = new ArrayList<>();
+        Deque<Iterator<ComponentRef<?>>> dependencies = new ArrayDeque<>();
+        for (Component root : roots) {
+            if (checked.contains(root)) continue;
+            inProgress.add(root);
+            visiting.add(root);
+            dependencies.push(components.get(root).getDependencies().iterator());
+            while (!dependencies.isEmpty()) {
+                Component component = visiting.get(visiting.size() - 1);
+                if (!dependencies.peek().hasNext()) {
+                    verified(component, checked, parent);
+                    inProgress.remove(component);
+                    visiting.remove(visiting.size() - 1);
+                    dependencies.pop();
+                    continue;
+                }
+                ComponentRef<?> dependency = dependencies.peek().next();
+                if (!components.containsKey(dependency.component())) {
+                    if (parent != null && parent.provider(dependency.component()) != null) continue;
+                    throw new DependencyNotFoundException(component, dependency.component());
+                }
+                if (deferred(dependency) || checked.contains(dependency.component())) continue;
+                if (inProgress.contains(dependency.component()))
+                    throw new CyclicDependenciesFoundException(visiting.subList(visiting.indexOf(dependency.component()), visiting.size()));
+                inProgress.add(dependency.component());
+                visiting.add(dependency.component());
+                dependencies.push(components.get(dependency.component()).getDependencies().iterator());
             }
         }
     }
 
+    private void verified(Component component, Set<Component> checked, FrozenContext parent) {
+        checked.add(component);
+        if (parent != null) return;
+        unverified.remove(component);
+        for (ComponentRef<?> dependency : components.get(component).getDependencies())
+            dependents.computeIfAbsent(dependency.component(), key -> new HashSet<>()).add(component);
+    }
+
+    private boolean deferred(ComponentRef<?> dependency) {
+        if (!dependency.isContainer() || dependency.getContainer() == Lease.class) return false;
+        if (dependency.getContainer() != CompletableFuture.class) return true;
+        return InstrumentedProvider.unwrap(components.get(dependency.component())) instanceof AsyncSingletonProvider<?>;
+    }
+
 }
@@ -1,17 +1,19 @@
 package geektime.tdd.di;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 public class CyclicDependenciesFoundException extends RuntimeException {
-    private final Set<Component> components = new HashSet<>();
+    private final List<Component> components;
 
     public CyclicDependenciesFoundException(List<Component> visiting) {
-        components.addAll(visiting);
+        components = List.copyOf(visiting);
     }
 
     public Class<?>[] getComponents() {
         return components.stream().map(c->c.type()).toArray(Class<?>[]::new);
     }
+
+    public List<Component> getPath() {
+        return components;
+    }
 }
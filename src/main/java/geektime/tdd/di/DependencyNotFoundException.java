@@ -5,6 +5,10 @@ public class DependencyNotFoundException extends RuntimeException {
     private Component dependency;
     private Component component;
 
+    public DependencyNotFoundException(Component dependency) {
+        this(null, dependency);
+    }
+
     public DependencyNotFoundException(Component component,Component dependency) {
         this.dependency = dependency;
         this.component = component;
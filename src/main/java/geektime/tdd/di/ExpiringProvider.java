@@ -0,0 +1,74 @@
+package geektime.tdd.di;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+class ExpiringProvider<T> implements ComponentProvider<T> {
+
+    private final ComponentProvider<T> provider;
+    private final ExpiringScope scope;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Entry<T> entry;
+
+    ExpiringProvider(ComponentProvider<T> provider, ExpiringScope scope) {
+        this.provider = provider;
+        this.scope = scope;
+    }
+
+    @Override
+    public T get(Context context) {
+        Entry<T> current = entry;
+        if (current == null) return create(context);
+        if (scope.now() - current.expiresAt >= 0 && refreshing.compareAndSet(false, true)) refresh(context);
+        return current.instance;
+    }
+
+    private T create(Context context) {
+        lock.lock();
+        try {
+            if (entry == null) entry = new Entry<>(provider.get(context), scope.expiry(scope.now()));
+            return entry.instance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refresh(Context context) {
+        try {
+            scope.executor().execute(() -> {
+                try {
+                    entry = new Entry<>(provider.get(context), scope.expiry(scope.now()));
+                } catch (RuntimeException | Error exception) {
+                    scope.refreshFailures.increment();
+                    throw exception;
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            scope.refreshFailures.increment();
+            refreshing.set(false);
+        }
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new ExpiringProvider<>(provider.copy(), scope);
+    }
+
+    @Override
+    public void link(Linker linker) {
+        provider.link(linker);
+    }
+
+    private record Entry<T>(T instance, long expiresAt) {
+    }
+}
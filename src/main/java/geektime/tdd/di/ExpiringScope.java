@@ -0,0 +1,50 @@
+package geektime.tdd.di;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public final class ExpiringScope implements ScopeProvider {
+    private final long ttl;
+    private final double jitter;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    final LongAdder refreshFailures = new LongAdder();
+
+    public ExpiringScope(Duration ttl, double jitter, Executor executor) {
+        this(ttl, jitter, executor, System::nanoTime);
+    }
+
+    ExpiringScope(Duration ttl, double jitter, Executor executor, LongSupplier clock) {
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be positive");
+        if (jitter < 0 || jitter >= 1) throw new IllegalArgumentException("jitter must be in [0, 1)");
+        this.ttl = ttl.toNanos();
+        this.jitter = jitter;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @Override
+    public ComponentProvider<?> create(ComponentProvider<?> provider) {
+        return new ExpiringProvider<>(provider, this);
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    long expiry(long now) {
+        return now + ttl - (long) (ttl * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    public long refreshFailures() {
+        return refreshFailures.sum();
+    }
+}
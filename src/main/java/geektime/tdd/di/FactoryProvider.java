@@ -0,0 +1,86 @@
+package geektime.tdd.di;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Optional;
+
+class FactoryProvider<T> implements ComponentProvider<T> {
+    static final String SUFFIX = "_Factory";
+
+    private static final ClassValue<Optional<Constructor<?>>> factories = new ClassValue<>() {
+        @Override
+        protected Optional<Constructor<?>> computeValue(Class<?> implementation) {
+            try {
+                Class<?> factory = Class.forName(factoryName(implementation), false, implementation.getClassLoader());
+                if (!ComponentFactory.class.isAssignableFrom(factory)) return Optional.empty();
+                return Optional.of(factory.getConstructor());
+            } catch (ClassNotFoundException exception) {
+                return Optional.empty();
+            } catch (ReflectiveOperationException exception) {
+                throw new IllegalComponentException();
+            }
+        }
+    };
+
+    private final ComponentFactory<T> factory;
+    private final List<ComponentRef<?>> dependencies;
+    private ComponentProvider<?>[] linked;
+
+    FactoryProvider(ComponentFactory<T> factory) {
+        this.factory = factory;
+        this.dependencies = factory.getDependencies();
+        this.linked = dependencies.stream().map(FactoryProvider::unlinked).toArray(ComponentProvider<?>[]::new);
+    }
+
+    static Optional<ComponentProvider<?>> of(Class<?> implementation) {
+        return factories.get(implementation).map(constructor -> {
+            try {
+                return new FactoryProvider<>((ComponentFactory<?>) constructor.newInstance());
+            } catch (ReflectiveOperationException exception) {
+                throw new IllegalComponentException();
+            }
+        });
+    }
+
+    static String factoryName(Class<?> implementation) {
+        String name = implementation.getName();
+        String packageName = implementation.getPackageName();
+        String binaryName = packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+        return name.substring(0, name.length() - binaryName.length()) + binaryName.replace('$', '_') + SUFFIX;
+    }
+
+    @Override
+    public T get(Context context) {
+        ComponentProvider<?>[] linked = this.linked;
+        Object[] dependencies = new Object[linked.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = linked[i].get(context);
+        }
+        try {
+            return factory.create(dependencies);
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return dependencies;
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new FactoryProvider<>(factory);
+    }
+
+    @Override
+    public void link(Linker linker) {
+        this.linked = dependencies.stream().map(linker::provider).toArray(ComponentProvider<?>[]::new);
+    }
+
+    private static ComponentProvider<?> unlinked(ComponentRef<?> ref) {
+        return context -> context.get(ref).get();
+    }
+}
@@ -0,0 +1,122 @@
+package geektime.tdd.di;
+
+import jakarta.inject.Provider;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+class FrozenContext implements Context {
+    private static final VarHandle PROVIDERS = MethodHandles.arrayElementVarHandle(Optional[].class);
+
+    private final ComponentRegistry registry;
+    private final FrozenContext parent;
+    private final Executor executor;
+    private final Optional<Provider<Object>>[] providers;
+
+    static FrozenContext of(ComponentRegistry registry, FrozenContext parent, Executor executor, boolean compile) {
+        FrozenContext context = new FrozenContext(registry, parent, executor, compile);
+        for (int id = 0; id < registry.size(); id++) {
+            if (InstrumentedProvider.unwrap(registry.provider(id)) instanceof AsyncSingletonProvider<?> async) async.future(context, executor);
+        }
+        return context;
+    }
+
+    private FrozenContext(ComponentRegistry registry, FrozenContext parent, Executor executor, boolean compile) {
+        this.registry = registry;
+        this.parent = parent;
+        this.executor = executor;
+        this.providers = new Optional[registry.size()];
+        Map<ComponentProvider<?>, Boolean> linked = new IdentityHashMap<>();
+        for (int id = 0; id < registry.size(); id++) {
+            ComponentProvider<?> provider = registry.provider(id);
+            if (linked.put(provider, true) == null) provider.link(this::link);
+        }
+        if (compile) {
+            GraphCompiler compiler = new GraphCompiler();
+            Map<ComponentProvider<?>, ComponentProvider<?>> compiled = new IdentityHashMap<>();
+            for (int id = 0; id < registry.size(); id++)
+                registry.replace(id, compiled.computeIfAbsent(registry.provider(id), compiler::compile));
+        }
+    }
+
+    @Override
+    public <ComponentType> Optional<ComponentType> get(ComponentRef<ComponentType> ref) {
+        int id = registry.id(ref.component());
+        if (id < 0) return parent == null ? Optional.empty() : parent.get(ref);
+        if (!ref.isContainer()) return Optional.ofNullable((ComponentType) registry.provider(id).get(this));
+        if (ref.getContainer() == Provider.class) return (Optional<ComponentType>) provider(id);
+        if (ref.getContainer() == CompletableFuture.class) return Optional.of((ComponentType) future(id));
+        if (ref.getContainer() == Lazy.class) return Optional.of((ComponentType) lazy(id));
+        if (ref.getContainer() == Lease.class) return Optional.of((ComponentType) lease(id));
+        return Optional.empty();
+    }
+
+    @Override
+    public <ComponentType> ComponentType require(ComponentRef<ComponentType> ref) {
+        int id = registry.id(ref.component());
+        if (id < 0 && parent != null) return parent.require(ref);
+        if (id >= 0) {
+            if (!ref.isContainer()) return (ComponentType) registry.provider(id).get(this);
+            if (ref.getContainer() == Provider.class) return (ComponentType) provider(id).get();
+            if (ref.getContainer() == CompletableFuture.class) return (ComponentType) future(id);
+            if (ref.getContainer() == Lazy.class) return (ComponentType) lazy(id);
+            if (ref.getContainer() == Lease.class) return (ComponentType) lease(id);
+        }
+        throw new DependencyNotFoundException(ref.component());
+    }
+
+    @Override
+    public WarmUp warmUp(Executor executor) {
+        return new SingletonWarmUp(registry, this, executor).run();
+    }
+
+    ComponentProvider<?> provider(Component component) {
+        ComponentProvider<?> provider = registry.get(component);
+        if (provider != null || parent == null) return provider;
+        return parent.provider(component);
+    }
+
+    private Optional<Provider<Object>> provider(int id) {
+        Optional<Provider<Object>> provider = (Optional<Provider<Object>>) PROVIDERS.getAcquire(providers, id);
+        if (provider != null) return provider;
+        ComponentProvider<?> target = registry.provider(id);
+        Optional<Provider<Object>> created = Optional.of(() -> target.get(this));
+        Optional<Provider<Object>> witness = (Optional<Provider<Object>>) PROVIDERS.compareAndExchangeRelease(providers, id, null, created);
+        return witness == null ? created : witness;
+    }
+
+    private CompletableFuture<?> future(int id) {
+        ComponentProvider<?> provider = registry.provider(id);
+        if (InstrumentedProvider.unwrap(provider) instanceof AsyncSingletonProvider<?> async) return async.future(this, executor);
+        return CompletableFuture.supplyAsync(() -> provider.get(this), executor);
+    }
+
+    private Lazy<?> lazy(int id) {
+        return new MemoizedLazy<>(registry.provider(id), this);
+    }
+
+    private Lease<?> lease(int id) {
+        ComponentProvider<?> provider = registry.provider(id);
+        if (InstrumentedProvider.unwrap(provider) instanceof PoolProvider<?> pool) return pool.lease(this);
+        return Lease.of(provider.get(this));
+    }
+
+    private ComponentProvider<?> link(ComponentRef<?> dependency) {
+        int id = registry.id(dependency.component());
+        if (parent != null && id < 0) return parent.link(dependency);
+        if (!dependency.isContainer()) return registry.provider(id);
+        if (dependency.getContainer() == Provider.class) {
+            Provider<Object> provider = provider(id).get();
+            return context -> provider;
+        }
+        if (dependency.getContainer() == CompletableFuture.class) return context -> future(id);
+        if (dependency.getContainer() == Lazy.class) return context -> lazy(id);
+        if (dependency.getContainer() == Lease.class) return context -> lease(id);
+        return context -> context.require(dependency);
+    }
+}
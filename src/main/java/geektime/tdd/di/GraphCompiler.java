@@ -0,0 +1,119 @@
+package geektime.tdd.di;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+final class GraphCompiler {
+    private static final int MAX_HANDLES = 4096;
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final MethodHandle GET;
+    private static final MethodHandle RETURN_INSTANCE;
+
+    static {
+        try {
+            GET = lookup.findVirtual(ComponentProvider.class, "get", methodType(Object.class, Context.class));
+            RETURN_INSTANCE = MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, Context.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    private final Map<InjectionProvider<?>, MethodHandle> handles = new IdentityHashMap<>();
+
+    ComponentProvider<?> compile(ComponentProvider<?> provider) {
+        if (!(provider instanceof InjectionProvider<?> injection)) return provider;
+        MethodHandle factory = handle(injection);
+        if (factory == null) return provider;
+        try {
+            return HiddenClasses.instantiate(CompiledProvider.class, List.of(factory, provider));
+        } catch (IllegalAccessException exception) {
+            return provider;
+        }
+    }
+
+    private MethodHandle handle(InjectionProvider<?> root) {
+        Deque<InjectionProvider<?>> pending = new ArrayDeque<>(List.of(root));
+        while (!pending.isEmpty()) {
+            InjectionProvider<?> provider = pending.peek();
+            if (handles.containsKey(provider)) {
+                pending.pop();
+                continue;
+            }
+            boolean ready = true;
+            for (ComponentProvider<?> dependency : provider.linked()) {
+                if (dependency instanceof InjectionProvider<?> injection && !handles.containsKey(injection)) {
+                    pending.push(injection);
+                    ready = false;
+                }
+            }
+            if (!ready) continue;
+            pending.pop();
+            handles.put(provider, handles.size() < MAX_HANDLES ? construct(provider) : null);
+        }
+        return handles.get(root);
+    }
+
+    private MethodHandle construct(InjectionProvider<?> provider) {
+        try {
+            List<AccessibleObject> points = provider.injectionPoints();
+            ComponentProvider<?>[] linked = provider.linked();
+            Constructor<?> constructor = (Constructor<?>) points.get(0);
+            int arity = constructor.getParameterCount();
+            MethodHandle instance = arguments(unreflect(constructor).asType(MethodType.genericMethodType(arity)), 0, linked, 0, arity);
+            int offset = arity;
+            for (AccessibleObject point : points.subList(1, points.size())) {
+                MethodHandle step;
+                if (point instanceof Field field) {
+                    step = arguments(lookup.unreflectSetter(accessible(field)).asType(methodType(void.class, Object.class, Object.class)), 1, linked, offset, 1);
+                    offset++;
+                } else {
+                    Method method = (Method) point;
+                    arity = method.getParameterCount();
+                    MethodType type = MethodType.genericMethodType(arity + 1).changeReturnType(void.class);
+                    step = arguments(lookup.unreflect(accessible(method)).asType(type), 1, linked, offset, arity);
+                    offset += arity;
+                }
+                instance = MethodHandles.foldArguments(MethodHandles.foldArguments(RETURN_INSTANCE, step), instance);
+            }
+            return instance;
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+    }
+
+    private MethodHandle arguments(MethodHandle handle, int position, ComponentProvider<?>[] linked, int offset, int count) {
+        if (count == 0) return MethodHandles.dropArguments(handle, position, Context.class);
+        MethodHandle[] dependencies = new MethodHandle[count];
+        for (int i = 0; i < count; i++) dependencies[i] = dependency(linked[offset + i]);
+        MethodHandle filtered = MethodHandles.filterArguments(handle, position, dependencies);
+        int[] reorder = new int[position + count];
+        for (int i = 0; i < reorder.length; i++) reorder[i] = Math.min(i, position);
+        return MethodHandles.permuteArguments(filtered, filtered.type().dropParameterTypes(position, position + count).appendParameterTypes(Context.class), reorder);
+    }
+
+    private MethodHandle dependency(ComponentProvider<?> provider) {
+        MethodHandle handle = provider instanceof InjectionProvider<?> injection ? handles.get(injection) : null;
+        return handle != null ? handle : GET.bindTo(provider);
+    }
+
+    private static MethodHandle unreflect(Constructor<?> constructor) throws IllegalAccessException {
+        return lookup.unreflectConstructor(accessible(constructor));
+    }
+
+    private static <T extends AccessibleObject> T accessible(T member) {
+        member.trySetAccessible();
+        return member;
+    }
+}
@@ -0,0 +1,38 @@
+package geektime.tdd.di;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+
+import static java.lang.invoke.MethodType.methodType;
+
+final class HiddenClasses {
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final ClassValue<byte[]> templates = new ClassValue<>() {
+        @Override
+        protected byte[] computeValue(Class<?> template) {
+            try (InputStream bytes = template.getResourceAsStream(template.getSimpleName() + ".class")) {
+                return bytes.readAllBytes();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    };
+
+    private HiddenClasses() {
+    }
+
+    static <T> T instantiate(Class<? extends T> template, Object data) throws IllegalAccessException {
+        MethodHandles.Lookup hidden = lookup.defineHiddenClassWithClassData(templates.get(template), data, true);
+        try {
+            return (T) hidden.findConstructor(hidden.lookupClass(), methodType(void.class)).invoke();
+        } catch (IllegalAccessException exception) {
+            throw exception;
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
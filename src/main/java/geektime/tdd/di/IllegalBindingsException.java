@@ -0,0 +1,17 @@
+package geektime.tdd.di;
+
+import java.util.List;
+
+public class IllegalBindingsException extends RuntimeException {
+    private final List<RuntimeException> errors;
+
+    public IllegalBindingsException(List<RuntimeException> errors) {
+        super(errors.size() + " binding(s) failed");
+        this.errors = List.copyOf(errors);
+        errors.forEach(this::addSuppressed);
+    }
+
+    public List<RuntimeException> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,58 @@
+package geektime.tdd.di;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class InjectionCache {
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static volatile ClassValue<InjectionProvider.Metadata<?>> metadata = create();
+    private static volatile ClassValue<List<InjectionProvider.InjectMethod>> injectMethods = createInjectMethods();
+
+    private InjectionCache() {
+    }
+
+    static <T> InjectionProvider.Metadata<T> get(Class<T> component) {
+        requests.increment();
+        return (InjectionProvider.Metadata<T>) metadata.get(component);
+    }
+
+    static List<InjectionProvider.InjectMethod> injectMethods(Class<?> component) {
+        return injectMethods.get(component);
+    }
+
+    public static long hits() {
+        return requests.sum() - misses.sum();
+    }
+
+    public static long misses() {
+        return misses.sum();
+    }
+
+    public static void clear() {
+        metadata = create();
+        injectMethods = createInjectMethods();
+        requests.reset();
+        misses.reset();
+    }
+
+    private static ClassValue<InjectionProvider.Metadata<?>> create() {
+        return new ClassValue<>() {
+            @Override
+            protected InjectionProvider.Metadata<?> computeValue(Class<?> component) {
+                misses.increment();
+                return new InjectionProvider.Metadata<>(component);
+            }
+        };
+    }
+
+    private static ClassValue<List<InjectionProvider.InjectMethod>> createInjectMethods() {
+        return new ClassValue<>() {
+            @Override
+            protected List<InjectionProvider.InjectMethod> computeValue(Class<?> component) {
+                Class<?> superclass = component.getSuperclass();
+                return InjectionProvider.InjectMethod.of(component, superclass == null || superclass == Object.class ? List.of() : get(superclass));
+            }
+        };
+    }
+}
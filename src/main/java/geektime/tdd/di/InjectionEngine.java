@@ -0,0 +1,102 @@
+package geektime.tdd.di;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+public enum InjectionEngine {
+    REFLECTION {
+        @Override
+        Injector constructor(Constructor<?> constructor) {
+            return (instance, dependencies) -> {
+                try {
+                    return constructor.newInstance(dependencies);
+                } catch (InvocationTargetException exception) {
+                    throw exception.getCause();
+                }
+            };
+        }
+
+        @Override
+        Injector field(Field field) {
+            return (instance, dependencies) -> {
+                field.set(instance, dependencies[0]);
+                return instance;
+            };
+        }
+
+        @Override
+        Injector method(Method method) {
+            return (instance, dependencies) -> {
+                try {
+                    return method.invoke(instance, dependencies);
+                } catch (InvocationTargetException exception) {
+                    throw exception.getCause();
+                }
+            };
+        }
+    },
+
+    METHOD_HANDLE {
+        @Override
+        Injector constructor(Constructor<?> constructor) {
+            MethodHandle handle = link(constructor, () -> lookup.unreflectConstructor(constructor));
+            int arity = constructor.getParameterCount();
+            MethodHandle spread = handle.asType(MethodType.genericMethodType(arity)).asSpreader(Object[].class, arity);
+            return injector(MethodHandles.dropArguments(spread, 0, Object.class));
+        }
+
+        @Override
+        Injector field(Field field) {
+            MethodHandle handle = link(field, () -> lookup.unreflectSetter(field));
+            return injector(handle.asType(MethodType.methodType(Object.class, Object.class, Object.class)).asSpreader(Object[].class, 1));
+        }
+
+        @Override
+        Injector method(Method method) {
+            MethodHandle handle = link(method, () -> lookup.unreflect(method));
+            int arity = method.getParameterCount();
+            return injector(handle.asType(MethodType.genericMethodType(arity + 1)).asSpreader(Object[].class, arity));
+        }
+
+        private static Injector injector(MethodHandle handle) {
+            MethodHandle injector = handle.asType(INJECTOR);
+            try {
+                return HiddenClasses.instantiate(ConstantInjector.class, injector);
+            } catch (IllegalAccessException e) {
+                return (instance, dependencies) -> (Object) injector.invokeExact(instance, dependencies);
+            }
+        }
+
+        private static MethodHandle link(AccessibleObject member, Unreflect unreflect) {
+            member.trySetAccessible();
+            try {
+                return unreflect.get();
+            } catch (IllegalAccessException e) {
+                throw new IllegalComponentException();
+            }
+        }
+    };
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final MethodType INJECTOR = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    abstract Injector constructor(Constructor<?> constructor);
+
+    abstract Injector field(Field field);
+
+    abstract Injector method(Method method);
+
+    interface Injector {
+        Object inject(Object instance, Object[] dependencies) throws Throwable;
+    }
+
+    private interface Unreflect {
+        MethodHandle get() throws IllegalAccessException;
+    }
+}
@@ -7,6 +7,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.stream;
@@ -14,44 +15,116 @@ import static java.util.stream.Stream.concat;
 
 public class InjectionProvider<T> implements ComponentProvider<T> {
 
-    private Injectable<Constructor<T>> injectConstructor;
-    private List<Injectable<Method>> injectMethods;
-    private List<Injectable<Field>> injectFileds;
+    private final Metadata<T> metadata;
+    private final Injectors injectors;
+    private ComponentProvider<?>[] linked;
 
     public InjectionProvider(Class<T> component) {
-        if (Modifier.isAbstract(component.getModifiers())) throw new IllegalComponentException();
+        this(component, InjectionEngine.REFLECTION);
+    }
 
-        this.injectConstructor = getInjectionConstructor(component);
-        this.injectMethods = getInjectMethod(component);
-        this.injectFileds = getInjectionFiled(component);
+    public InjectionProvider(Class<T> component, InjectionEngine engine) {
+        this(InjectionCache.get(component), engine);
+    }
 
-        if (injectFileds.stream().map(Injectable::element).anyMatch(filed -> Modifier.isFinal(filed.getModifiers())))
-            throw new IllegalComponentException();
-        if (injectMethods.stream().map(Injectable::element).anyMatch(method -> method.getTypeParameters().length != 0))
-            throw new IllegalComponentException();
+    private InjectionProvider(Metadata<T> metadata, InjectionEngine engine) {
+        this(metadata, metadata.injectors(engine));
+    }
 
+    private InjectionProvider(Metadata<T> metadata, Injectors injectors) {
+        this.metadata = metadata;
+        this.injectors = injectors;
+        this.linked = metadata.dependencies.stream().map(InjectionProvider::unlinked).toArray(ComponentProvider<?>[]::new);
     }
 
     @Override
     public T get(Context context) {
+        ComponentProvider<?>[] linked = this.linked;
         try {
-            T instance = injectConstructor.element.newInstance(injectConstructor.toDependencies(context));
-            for (Injectable<Field> field : injectFileds) {
-                field.element.set(instance, field.toDependencies(context)[0]);
+            int offset = 0;
+            T instance = (T) injectors.constructor.inject(null, metadata.injectConstructor.toDependencies(context, linked, offset));
+            offset += metadata.injectConstructor.required.length;
+            for (int i = 0; i < injectors.fields.length; i++) {
+                injectors.fields[i].inject(instance, metadata.injectFileds.get(i).toDependencies(context, linked, offset));
+                offset++;
             }
-            for (Injectable<Method> method : injectMethods) {
-                method.element.invoke(instance, method.toDependencies(context));
+            for (int i = 0; i < injectors.methods.length; i++) {
+                Injectable<Method> method = metadata.injectMethods.get(i);
+                injectors.methods[i].inject(instance, method.toDependencies(context, linked, offset));
+                offset += method.required.length;
             }
             return instance;
-        } catch (InvocationTargetException | InstantiationException | IllegalAccessException exception) {
-            throw new RuntimeException();
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable exception) {
+            throw new RuntimeException(exception);
         }
     }
 
     @Override
     public List<ComponentRef<?>> getDependencies() {
-        return concat(concat(Stream.of(injectConstructor), injectFileds.stream()), injectMethods.stream())
-                .flatMap(i -> stream(i.required)).toList();
+        return metadata.dependencies;
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new InjectionProvider<>(metadata, injectors);
+    }
+
+    @Override
+    public void link(Linker linker) {
+        this.linked = metadata.dependencies.stream().map(linker::provider).toArray(ComponentProvider<?>[]::new);
+    }
+
+    List<AccessibleObject> injectionPoints() {
+        return concat(concat(Stream.of(metadata.injectConstructor), metadata.injectFileds.stream()), metadata.injectMethods.stream())
+                .<AccessibleObject>map(Injectable::element).toList();
+    }
+
+    ComponentProvider<?>[] linked() {
+        return linked;
+    }
+
+    private static ComponentProvider<?> unlinked(ComponentRef<?> ref) {
+        return context -> context.get(ref).get();
+    }
+
+    static final class Metadata<T> {
+        private final Injectable<Constructor<T>> injectConstructor;
+        private final List<Injectable<Method>> injectMethods;
+        private final List<Injectable<Field>> injectFileds;
+        private final List<ComponentRef<?>> dependencies;
+        private final Injectors[] injectors = new Injectors[InjectionEngine.values().length];
+
+        Metadata(Class<T> component) {
+            if (Modifier.isAbstract(component.getModifiers())) throw new IllegalComponentException();
+
+            this.injectConstructor = getInjectionConstructor(component);
+            this.injectMethods = getInjectMethod(component);
+            this.injectFileds = getInjectionFiled(component);
+
+            if (injectFileds.stream().map(Injectable::element).anyMatch(filed -> Modifier.isFinal(filed.getModifiers())))
+                throw new IllegalComponentException();
+            if (injectMethods.stream().map(Injectable::element).anyMatch(method -> method.getTypeParameters().length != 0))
+                throw new IllegalComponentException();
+
+            this.dependencies = concat(concat(Stream.of(injectConstructor), injectFileds.stream()), injectMethods.stream())
+                    .flatMap(i -> stream(i.required)).toList();
+        }
+
+        Injectors injectors(InjectionEngine engine) {
+            Injectors linked = injectors[engine.ordinal()];
+            if (linked == null) {
+                linked = new Injectors(engine.constructor(injectConstructor.element),
+                        injectFileds.stream().map(f -> engine.field(f.element)).toArray(InjectionEngine.Injector[]::new),
+                        injectMethods.stream().map(m -> engine.method(m.element)).toArray(InjectionEngine.Injector[]::new));
+                injectors[engine.ordinal()] = linked;
+            }
+            return linked;
+        }
+    }
+
+    record Injectors(InjectionEngine.Injector constructor, InjectionEngine.Injector[] fields, InjectionEngine.Injector[] methods) {
     }
 
     record Injectable<Element extends AccessibleObject>(Element element, ComponentRef<?>[] required) {
@@ -63,8 +136,12 @@ public class InjectionProvider<T> implements ComponentProvider<T> {
             return new Injectable<>(field, new ComponentRef<?>[]{toComponentRef(field)});
         }
 
-        Object[] toDependencies(Context context) {
-            return stream(required).map(context::get).map(Optional::get).toArray();
+        Object[] toDependencies(Context context, ComponentProvider<?>[] linked, int offset) {
+            Object[] dependencies = new Object[required.length];
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = linked[offset + i].get(context);
+            }
+            return dependencies;
         }
 
         private static ComponentRef<?> toComponentRef(Field f) {
@@ -96,11 +173,29 @@ public class InjectionProvider<T> implements ComponentProvider<T> {
     }
 
     private static List<Injectable<Method>> getInjectMethod(Class<?> component) {
-        List<Method> injectMethods = traverse(component, (methods, current) -> injectable(current.getDeclaredMethods())
-                .filter(m -> isOverrideByInjectMethod(m, methods))
-                .filter(m -> isOverrideByNoInjectMethod(component, m)).toList());
-        Collections.reverse(injectMethods);
-        return injectMethods.stream().map(Injectable::of).toList();
+        Set<Signature> overriddenByNoInject = stream(component.getDeclaredMethods())
+                .filter(m -> !m.isAnnotationPresent(Inject.class)).map(Signature::of).collect(Collectors.toSet());
+        return InjectionCache.injectMethods(component).stream().filter(m -> !overriddenByNoInject.contains(m.signature()))
+                .map(m -> Injectable.of(m.method())).toList();
+    }
+
+    record Signature(String name, List<Class<?>> parameterTypes) {
+        static Signature of(Method method) {
+            return new Signature(method.getName(), List.of(method.getParameterTypes()));
+        }
+    }
+
+    record InjectMethod(Method method, Signature signature) {
+        static List<InjectMethod> of(Class<?> type, List<InjectMethod> inherited) {
+            List<Method> declared = injectable(type.getDeclaredMethods()).toList();
+            Set<Signature> overridden = declared.stream().map(Signature::of).collect(Collectors.toSet());
+            List<InjectMethod> methods = new ArrayList<>();
+            for (InjectMethod method : inherited)
+                if (!overridden.contains(method.signature())) methods.add(method);
+            for (int i = declared.size() - 1; i >= 0; i--)
+                methods.add(new InjectMethod(declared.get(i), Signature.of(declared.get(i))));
+            return List.copyOf(methods);
+        }
     }
 
     private static <Type> Constructor<Type> defualtConstructor(Class<Type> implementation) {
@@ -125,19 +220,5 @@ public class InjectionProvider<T> implements ComponentProvider<T> {
         return stream(declaredFields).filter(f -> f.isAnnotationPresent(Inject.class));
     }
 
-    private static boolean isOverride(Method m, Method o) {
-        return o.getName().equals(m.getName()) &&
-                Arrays.equals(o.getParameterTypes(), m.getParameterTypes());
-    }
-
-    private static <T> boolean isOverrideByNoInjectMethod(Class<T> component, Method m) {
-        return stream(component.getDeclaredMethods()).filter(m1 -> !m1.isAnnotationPresent(Inject.class))
-                .noneMatch(o -> isOverride(m, o));
-    }
-
-    private static boolean isOverrideByInjectMethod(Method m, List<Method> injectMethods) {
-        return injectMethods.stream().noneMatch(o -> isOverride(m, o));
-    }
-
 }
 
@@ -0,0 +1,58 @@
+package geektime.tdd.di;
+
+import java.util.List;
+
+class InstrumentedProvider<T> implements ComponentProvider<T> {
+    private final ComponentProvider<T> provider;
+    private final ComponentMetrics.Stats stats;
+    private final boolean construction;
+
+    private InstrumentedProvider(ComponentProvider<T> provider, ComponentMetrics.Stats stats, boolean construction) {
+        this.provider = provider;
+        this.stats = stats;
+        this.construction = construction;
+    }
+
+    static ComponentProvider<?> constructions(ComponentMetrics.Stats stats, ComponentProvider<?> provider) {
+        return stats == null ? provider : new InstrumentedProvider<>(provider, stats, true);
+    }
+
+    static ComponentProvider<?> requests(ComponentMetrics.Stats stats, ComponentProvider<?> provider) {
+        return stats == null ? provider : new InstrumentedProvider<>(provider, stats, false);
+    }
+
+    ComponentProvider<T> provider() {
+        return provider;
+    }
+
+    static ComponentProvider<?> unwrap(ComponentProvider<?> provider) {
+        return provider instanceof InstrumentedProvider<?> instrumented ? unwrap(instrumented.provider()) : provider;
+    }
+
+    @Override
+    public T get(Context context) {
+        if (!construction) {
+            stats.requested();
+            return provider.get(context);
+        }
+        long start = System.nanoTime();
+        T instance = provider.get(context);
+        stats.created(start, System.nanoTime());
+        return instance;
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new InstrumentedProvider<>(provider.copy(), stats, construction);
+    }
+
+    @Override
+    public void link(Linker linker) {
+        provider.link(linker);
+    }
+}
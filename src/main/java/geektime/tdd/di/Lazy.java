@@ -0,0 +1,5 @@
+package geektime.tdd.di;
+
+public interface Lazy<T> {
+    T get();
+}
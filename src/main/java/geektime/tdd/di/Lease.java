@@ -0,0 +1,21 @@
+package geektime.tdd.di;
+
+public interface Lease<T> extends AutoCloseable {
+    T get();
+
+    @Override
+    void close();
+
+    static <T> Lease<T> of(T instance) {
+        return new Lease<>() {
+            @Override
+            public T get() {
+                return instance;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
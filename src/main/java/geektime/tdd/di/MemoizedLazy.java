@@ -0,0 +1,33 @@
+package geektime.tdd.di;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+final class MemoizedLazy<T> implements Lazy<T> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile ComponentProvider<T> provider;
+    private Context context;
+    private T instance;
+
+    MemoizedLazy(ComponentProvider<T> provider, Context context) {
+        this.provider = provider;
+        this.context = context;
+    }
+
+    @Override
+    public T get() {
+        if (provider == null) return instance;
+        lock.lock();
+        try {
+            ComponentProvider<T> provider = this.provider;
+            if (provider != null) {
+                instance = provider.get(context);
+                context = null;
+                this.provider = null;
+            }
+            return instance;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
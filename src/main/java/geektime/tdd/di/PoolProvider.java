@@ -0,0 +1,115 @@
+package geektime.tdd.di;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+class PoolProvider<T> implements ComponentProvider<T> {
+
+    private final ComponentProvider<T> provider;
+    private final PoolScope scope;
+    private final AtomicReferenceArray<T> idle;
+    private final Semaphore leases;
+
+    PoolProvider(ComponentProvider<T> provider, PoolScope scope) {
+        this.provider = provider;
+        this.scope = scope;
+        this.idle = new AtomicReferenceArray<>(scope.capacity());
+        this.leases = new Semaphore(scope.capacity());
+    }
+
+    @Override
+    public T get(Context context) {
+        return provider.get(context);
+    }
+
+    Lease<T> lease(Context context) {
+        if (!leases.tryAcquire()) {
+            scope.waits.increment();
+            try {
+                if (!leases.tryAcquire(scope.timeout().toNanos(), TimeUnit.NANOSECONDS))
+                    throw new IllegalStateException("no pooled instance available within " + scope.timeout());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(exception);
+            }
+        }
+        try {
+            return new Borrowed(checkout(context));
+        } catch (RuntimeException | Error exception) {
+            leases.release();
+            throw exception;
+        }
+    }
+
+    private T checkout(Context context) {
+        T instance = take();
+        if (instance != null) {
+            scope.hits.increment();
+            return instance;
+        }
+        scope.misses.increment();
+        return provider.get(context);
+    }
+
+    private T take() {
+        int start = probe();
+        for (int i = 0; i < idle.length(); i++) {
+            int slot = (start + i) % idle.length();
+            if (idle.get(slot) == null) continue;
+            T instance = idle.getAndSet(slot, null);
+            if (instance != null) return instance;
+        }
+        return null;
+    }
+
+    private void giveBack(T instance) {
+        int start = probe();
+        for (int i = 0; i < idle.length(); i++) {
+            if (idle.compareAndSet((start + i) % idle.length(), null, instance)) break;
+        }
+        leases.release();
+    }
+
+    private int probe() {
+        return (Thread.currentThread().hashCode() & 0x7fffffff) % idle.length();
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new PoolProvider<>(provider.copy(), scope);
+    }
+
+    @Override
+    public void link(Linker linker) {
+        provider.link(linker);
+    }
+
+    private final class Borrowed implements Lease<T> {
+        private final AtomicReference<T> instance;
+
+        Borrowed(T instance) {
+            this.instance = new AtomicReference<>(instance);
+        }
+
+        @Override
+        public T get() {
+            T current = instance.get();
+            if (current == null) throw new IllegalStateException("lease already closed");
+            return current;
+        }
+
+        @Override
+        public void close() {
+            T returned = instance.getAndSet(null);
+            if (returned != null) giveBack(returned);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package geektime.tdd.di;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class PoolScope implements ScopeProvider {
+    private final int capacity;
+    private final Duration timeout;
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder waits = new LongAdder();
+
+    public PoolScope(int capacity, Duration timeout) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public ComponentProvider<?> create(ComponentProvider<?> provider) {
+        return new PoolProvider<>(provider, this);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    Duration timeout() {
+        return timeout;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long waits() {
+        return waits.sum();
+    }
+}
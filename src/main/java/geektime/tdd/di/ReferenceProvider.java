@@ -0,0 +1,53 @@
+package geektime.tdd.di;
+
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+class ReferenceProvider<T> implements ComponentProvider<T> {
+
+    private final ComponentProvider<T> provider;
+    private final ReferenceScope scope;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Reference<T> reference;
+
+    ReferenceProvider(ComponentProvider<T> provider, ReferenceScope scope) {
+        this.provider = provider;
+        this.scope = scope;
+    }
+
+    @Override
+    public T get(Context context) {
+        scope.expunge();
+        Reference<T> current = reference;
+        T instance = current == null ? null : current.get();
+        if (instance != null) return instance;
+        lock.lock();
+        try {
+            current = reference;
+            instance = current == null ? null : current.get();
+            if (instance != null) return instance;
+            instance = provider.get(context);
+            if (current != null) scope.rebuilds.increment();
+            reference = scope.reference(instance);
+            return instance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new ReferenceProvider<>(provider.copy(), scope);
+    }
+
+    @Override
+    public void link(Linker linker) {
+        provider.link(linker);
+    }
+}
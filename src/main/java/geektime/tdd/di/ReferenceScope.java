@@ -0,0 +1,49 @@
+package geektime.tdd.di;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ReferenceScope implements ScopeProvider {
+    private final boolean soft;
+    private final ReferenceQueue<Object> cleared = new ReferenceQueue<>();
+
+    final LongAdder evictions = new LongAdder();
+    final LongAdder rebuilds = new LongAdder();
+
+    private ReferenceScope(boolean soft) {
+        this.soft = soft;
+    }
+
+    public static ReferenceScope soft() {
+        return new ReferenceScope(true);
+    }
+
+    public static ReferenceScope weak() {
+        return new ReferenceScope(false);
+    }
+
+    @Override
+    public ComponentProvider<?> create(ComponentProvider<?> provider) {
+        return new ReferenceProvider<>(provider, this);
+    }
+
+    <T> Reference<T> reference(T instance) {
+        return soft ? new SoftReference<>(instance, cleared) : new WeakReference<>(instance, cleared);
+    }
+
+    void expunge() {
+        while (cleared.poll() != null) evictions.increment();
+    }
+
+    public long evictions() {
+        expunge();
+        return evictions.sum();
+    }
+
+    public long rebuilds() {
+        return rebuilds.sum();
+    }
+}
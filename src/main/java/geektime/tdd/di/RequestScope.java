@@ -0,0 +1,44 @@
+package geektime.tdd.di;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public final class RequestScope implements AutoCloseable {
+    private static final ThreadLocal<RequestScope> current = new ThreadLocal<>();
+
+    final Map<ComponentProvider<?>, Object> instances = new IdentityHashMap<>();
+    private final RequestScope outer;
+    private final Thread owner = Thread.currentThread();
+    private boolean closed;
+
+    private RequestScope(RequestScope outer) {
+        this.outer = outer;
+    }
+
+    public static RequestScope enter() {
+        RequestScope request = new RequestScope(current.get());
+        current.set(request);
+        return request;
+    }
+
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    static RequestScope current() {
+        RequestScope request = current.get();
+        if (request == null) throw new IllegalStateException("no active request scope");
+        return request;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        if (owner != Thread.currentThread() || current.get() != this)
+            throw new IllegalStateException("request scope must be exited in the order it was entered on the same thread");
+        closed = true;
+        instances.clear();
+        if (outer == null) current.remove();
+        else current.set(outer);
+    }
+}
@@ -0,0 +1,38 @@
+package geektime.tdd.di;
+
+import java.util.List;
+
+public class RequestScopedProvider<T> implements ComponentProvider<T> {
+
+    private final ComponentProvider<T> provider;
+
+    public RequestScopedProvider(ComponentProvider<T> provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public T get(Context context) {
+        RequestScope request = RequestScope.current();
+        T instance = (T) request.instances.get(this);
+        if (instance == null) {
+            instance = provider.get(context);
+            request.instances.put(this, instance);
+        }
+        return instance;
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new RequestScopedProvider<>(provider.copy());
+    }
+
+    @Override
+    public void link(Linker linker) {
+        provider.link(linker);
+    }
+}
@@ -1,11 +1,13 @@
 package geektime.tdd.di;
 
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class SingletonProvider<T> implements ComponentProvider<T> {
 
-    private ComponentProvider<T> provider;
-    private T singleton;
+    private final ComponentProvider<T> provider;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile T singleton;
 
     public SingletonProvider(ComponentProvider<T> provider) {
         this.provider = provider;
@@ -13,14 +15,31 @@ public class SingletonProvider<T> implements ComponentProvider<T> {
 
     @Override
     public T get(Context context) {
-        if (singleton == null) {
-            singleton = provider.get(context);
+        T instance = singleton;
+        if (instance != null) return instance;
+        lock.lock();
+        try {
+            if (singleton == null) {
+                singleton = provider.get(context);
+            }
+            return singleton;
+        } finally {
+            lock.unlock();
         }
-        return singleton;
     }
 
     @Override
     public List<ComponentRef<?>> getDependencies() {
         return provider.getDependencies();
     }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new SingletonProvider<>(provider.copy());
+    }
+
+    @Override
+    public void link(Linker linker) {
+        provider.link(linker);
+    }
 }
@@ -0,0 +1,76 @@
+package geektime.tdd.di;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+class SingletonWarmUp {
+    private final FrozenContext context;
+    private final Executor executor;
+
+    private final Map<ComponentProvider<?>, Component> singletons = new IdentityHashMap<>();
+    private final Map<ComponentProvider<?>, Set<ComponentProvider<?>>> reachable = new IdentityHashMap<>();
+    private final Map<ComponentProvider<?>, CompletableFuture<Void>> tasks = new IdentityHashMap<>();
+    private final Map<Component, Duration> durations = new ConcurrentHashMap<>();
+
+    SingletonWarmUp(ComponentRegistry registry, FrozenContext context, Executor executor) {
+        this.context = context;
+        this.executor = executor;
+        registry.forEach((component, provider) -> {
+            if (isSingleton(provider)) singletons.putIfAbsent(provider, component);
+        });
+    }
+
+    WarmUp run() {
+        long start = System.nanoTime();
+        for (ComponentProvider<?> singleton : List.copyOf(singletons.keySet())) {
+            schedule(singleton);
+        }
+        try {
+            CompletableFuture.allOf(tasks.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) throw cause;
+            throw exception;
+        }
+        return new WarmUp(Duration.ofNanos(System.nanoTime() - start), Map.copyOf(durations));
+    }
+
+    private CompletableFuture<Void> schedule(ComponentProvider<?> singleton) {
+        CompletableFuture<Void> task = tasks.get(singleton);
+        if (task != null) return task;
+        CompletableFuture<?>[] dependencies = singletonDependencies(singleton).stream()
+                .map(this::schedule).toArray(CompletableFuture[]::new);
+        Component component = singletons.get(singleton);
+        task = CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+            long start = System.nanoTime();
+            singleton.get(context);
+            durations.put(component, Duration.ofNanos(System.nanoTime() - start));
+        }, executor);
+        tasks.put(singleton, task);
+        return task;
+    }
+
+    private Set<ComponentProvider<?>> singletonDependencies(ComponentProvider<?> provider) {
+        Set<ComponentProvider<?>> dependencies = reachable.get(provider);
+        if (dependencies != null) return dependencies;
+        dependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ComponentRef<?> ref : provider.getDependencies()) {
+            if (ref.isContainer()) continue;
+            ComponentProvider<?> dependency = context.provider(ref.component());
+            if (isSingleton(dependency)) {
+                singletons.putIfAbsent(dependency, ref.component());
+                dependencies.add(dependency);
+            }
+            else dependencies.addAll(singletonDependencies(dependency));
+        }
+        reachable.put(provider, dependencies);
+        return dependencies;
+    }
+
+    private static boolean isSingleton(ComponentProvider<?> provider) {
+        return InstrumentedProvider.unwrap(provider) instanceof SingletonProvider<?>;
+    }
+}
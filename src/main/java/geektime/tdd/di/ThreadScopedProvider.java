@@ -0,0 +1,42 @@
+package geektime.tdd.di;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ThreadScopedProvider<T> implements ComponentProvider<T> {
+
+    private final ComponentProvider<T> provider;
+    private final Map<Thread, T> instances = new ConcurrentHashMap<>();
+
+    public ThreadScopedProvider(ComponentProvider<T> provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public T get(Context context) {
+        Thread thread = Thread.currentThread();
+        T instance = instances.get(thread);
+        if (instance == null) {
+            instance = provider.get(context);
+            instances.keySet().removeIf(owner -> !owner.isAlive());
+            instances.put(thread, instance);
+        }
+        return instance;
+    }
+
+    @Override
+    public List<ComponentRef<?>> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public ComponentProvider<T> copy() {
+        return new ThreadScopedProvider<>(provider.copy());
+    }
+
+    @Override
+    public void link(Linker linker) {
+        provider.link(linker);
+    }
+}
@@ -0,0 +1,7 @@
+package geektime.tdd.di;
+
+import java.time.Duration;
+import java.util.Map;
+
+public record WarmUp(Duration total, Map<Component, Duration> components) {
+}
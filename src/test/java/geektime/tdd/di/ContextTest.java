@@ -4,13 +4,25 @@ package geektime.tdd.di;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import jakarta.inject.Singleton;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.internal.util.collections.Sets;
 
+import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -49,6 +61,36 @@ public class ContextTest {
             assertSame(dependency, component.get().dependency());
         }
 
+        @ParameterizedTest(name = "supporting {0}")
+        @MethodSource("should_bind_type_to_an_injectable_component")
+        public void should_bind_type_to_an_injectable_component_with_method_handle_engine(Class<? extends TestComponent> componentType) {
+            Dependency dependency = new Dependency() {
+            };
+            config.engine(InjectionEngine.METHOD_HANDLE);
+            config.bind(Dependency.class, dependency);
+            config.bind(TestComponent.class, componentType);
+
+            Optional<TestComponent> component = config.getContext().get(ComponentRef.of(TestComponent.class));
+
+            assertTrue(component.isPresent());
+            assertSame(dependency, component.get().dependency());
+        }
+
+        @ParameterizedTest(name = "supporting {0}")
+        @MethodSource("should_bind_type_to_an_injectable_component")
+        public void should_bind_type_to_an_injectable_component_with_compiled_graph(Class<? extends TestComponent> componentType) {
+            Dependency dependency = new Dependency() {
+            };
+            config.compile(true);
+            config.bind(Dependency.class, dependency);
+            config.bind(TestComponent.class, componentType);
+
+            Optional<TestComponent> component = config.getContext().get(ComponentRef.of(TestComponent.class));
+
+            assertTrue(component.isPresent());
+            assertSame(dependency, component.get().dependency());
+        }
+
         public static Stream<Arguments> should_bind_type_to_an_injectable_component() {
             return Stream.of(Arguments.of(Named.of("Constructor Injection", TypeBinding.ConstructorInjection.class)),
                     Arguments.of(Named.of("Filed Injection", TypeBinding.FieldInjection.class)),
@@ -113,6 +155,71 @@ public class ContextTest {
             assertSame(instance, provider.get());
         }
 
+        static class ProviderInjection {
+            @Inject
+            Provider<TestComponent> provider;
+        }
+
+        @Test
+        public void should_reuse_same_provider_for_component() {
+            TestComponent instance = new TestComponent() {
+            };
+            config.bind(TestComponent.class, instance);
+            config.bind(ProviderInjection.class, ProviderInjection.class);
+            Context context = config.getContext();
+
+            ComponentRef<Provider<TestComponent>> ref = new ComponentRef<>() {
+            };
+            Provider<TestComponent> provider = context.get(ref).get();
+            assertSame(context.get(ref), context.get(ref));
+            assertSame(provider, context.get(ComponentRef.of(ProviderInjection.class)).get().provider);
+            assertSame(provider, context.get(ComponentRef.of(ProviderInjection.class)).get().provider);
+        }
+
+        static class Heavy {
+            static final AtomicInteger created = new AtomicInteger();
+
+            public Heavy() {
+                created.incrementAndGet();
+            }
+        }
+
+        static class LazyInjection {
+            @Inject
+            Lazy<Heavy> first;
+            @Inject
+            Lazy<Heavy> second;
+        }
+
+        @Test
+        public void should_construct_lazy_dependency_once_per_injection_point_on_first_access() {
+            Heavy.created.set(0);
+            config.bind(Heavy.class, Heavy.class);
+            config.bind(LazyInjection.class, LazyInjection.class);
+            Context context = config.getContext();
+
+            LazyInjection component = context.get(ComponentRef.of(LazyInjection.class)).get();
+            assertEquals(0, Heavy.created.get());
+
+            Heavy heavy = component.first.get();
+            assertSame(heavy, component.first.get());
+            assertEquals(1, Heavy.created.get());
+            assertNotSame(heavy, component.second.get());
+            assertEquals(2, Heavy.created.get());
+        }
+
+        @Test
+        public void should_retrieve_binded_type_as_lazy() {
+            TestComponent instance = new TestComponent() {
+            };
+            config.bind(TestComponent.class, instance);
+            Context context = config.getContext();
+
+            Lazy<TestComponent> lazy = context.get(new ComponentRef<Lazy<TestComponent>>() {
+            }).get();
+            assertSame(instance, lazy.get());
+        }
+
         @Test
         public void should_not_retrieve_bind_type_as_unsupported_container() {
             TestComponent instance = new TestComponent() {
@@ -124,6 +231,53 @@ public class ContextTest {
             }).isEmpty());
         }
 
+        @Test
+        public void should_require_binded_type_and_provider() {
+            TestComponent instance = new TestComponent() {
+            };
+            config.bind(TestComponent.class, instance);
+            Context context = config.getContext();
+
+            assertSame(instance, context.require(ComponentRef.of(TestComponent.class)));
+            assertSame(instance, context.require(new ComponentRef<Provider<TestComponent>>() {
+            }).get());
+        }
+
+        @Test
+        public void should_throw_exception_if_required_component_not_found() {
+            Context context = config.getContext();
+
+            DependencyNotFoundException exception = assertThrows(DependencyNotFoundException.class,
+                    () -> context.require(ComponentRef.of(TestComponent.class)));
+            assertEquals(TestComponent.class, exception.getDependency().type());
+
+            TestComponent instance = new TestComponent() {
+            };
+            config.bind(TestComponent.class, instance);
+            assertThrows(DependencyNotFoundException.class, () -> config.getContext().require(new ComponentRef<List<TestComponent>>() {
+            }));
+        }
+
+        @Test
+        public void should_not_change_existing_context_after_binding_again() {
+            Dependency dependency = new Dependency() {
+            };
+            config.bind(Dependency.class, dependency);
+            config.bind(TestComponent.class, ConstructorInjection.class);
+            Context context = config.getContext();
+
+            Dependency another = new Dependency() {
+            };
+            config.bind(Dependency.class, another);
+            config.bind(AnotherDependency.class, new AnotherDependency() {
+            });
+            Context rebound = config.getContext();
+
+            assertSame(dependency, context.get(ComponentRef.of(TestComponent.class)).get().dependency());
+            assertSame(another, rebound.get(ComponentRef.of(TestComponent.class)).get().dependency());
+            assertTrue(context.get(ComponentRef.of(AnotherDependency.class)).isEmpty());
+        }
+
         @Nested
         public class WithQualifier {
             TestComponent instance = new TestComponent() {
@@ -174,6 +328,34 @@ public class ContextTest {
                 assertThrows(IllegalComponentException.class, () -> config.bind(TestComponent.class, ConstructorInjection.class, new TestLiteral()));
             }
 
+            static class ReflectedQualifier {
+                @Inject
+                @jakarta.inject.Named("ChosenOne")
+                Dependency dependency;
+            }
+
+            @Test
+            public void should_canonicalize_equal_qualifiers_to_same_component() throws Exception {
+                Annotation reflected = ReflectedQualifier.class.getDeclaredField("dependency").getAnnotation(jakarta.inject.Named.class);
+
+                Component literal = ComponentRef.of(Dependency.class, new NamedLiteral("ChosenOne")).component();
+                Component annotated = ComponentRef.of(Dependency.class, reflected).component();
+
+                assertSame(literal, annotated);
+                assertSame(literal.qualifier(), annotated.qualifier());
+                assertEquals(new Component(Dependency.class, reflected), literal);
+                assertSame(ComponentRef.of(Dependency.class), ComponentRef.of(Dependency.class));
+            }
+
+            @Test
+            public void should_release_interned_component_of_dynamic_qualifier() {
+                WeakReference<Component> component = new WeakReference<>(ComponentRef.of(Dependency.class, new NamedLiteral("tenant-" + UUID.randomUUID())).component());
+
+                for (int i = 0; i < 10 && component.get() != null; i++) System.gc();
+
+                assertNull(component.get());
+            }
+
             @Test
             public void should_retrieve_bind_type_as_provider() {
                 config.bind(TestComponent.class, instance, new NamedLiteral("ChosenOne"), new SkywalkerLiteral());
@@ -208,6 +390,42 @@ public class ContextTest {
             static class SingletonAnnotated implements Dependency{
             }
 
+            static class SlowSingleton {
+                static final AtomicInteger created = new AtomicInteger();
+
+                public SlowSingleton() throws InterruptedException {
+                    created.incrementAndGet();
+                    Thread.sleep(10);
+                }
+            }
+
+            @Test
+            public void should_create_singleton_only_once_under_contention() throws Exception {
+                SlowSingleton.created.set(0);
+                config.bind(SlowSingleton.class, SlowSingleton.class, new SingletonLiteral());
+                Context context = config.getContext();
+
+                int threads = 32;
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                try {
+                    CyclicBarrier barrier = new CyclicBarrier(threads);
+                    List<Future<SlowSingleton>> futures = new ArrayList<>();
+                    for (int i = 0; i < threads; i++) {
+                        futures.add(executor.submit(() -> {
+                            barrier.await();
+                            return context.get(ComponentRef.of(SlowSingleton.class)).get();
+                        }));
+                    }
+                    Set<SlowSingleton> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+                    for (Future<SlowSingleton> future : futures) instances.add(future.get());
+
+                    assertEquals(1, instances.size());
+                    assertEquals(1, SlowSingleton.created.get());
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+
             @Test
             public void should_retrieve_scope_annotation_from_component() {
                 config.bind(Dependency.class,SingletonAnnotated.class);
@@ -215,6 +433,112 @@ public class ContextTest {
                 assertSame(context.get(ComponentRef.of(Dependency.class)).get(), context.get(ComponentRef.of(Dependency.class)).get());
             }
 
+            @ThreadScoped
+            static class ThreadScopedComponent {
+            }
+
+            @Test
+            public void should_share_thread_scoped_component_within_thread_only() throws Exception {
+                config.bind(ThreadScopedComponent.class, ThreadScopedComponent.class);
+                Context context = config.getContext();
+
+                ThreadScopedComponent instance = context.get(ComponentRef.of(ThreadScopedComponent.class)).get();
+                assertSame(instance, context.get(ComponentRef.of(ThreadScopedComponent.class)).get());
+
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                try {
+                    assertNotSame(instance, executor.submit(() -> context.get(ComponentRef.of(ThreadScopedComponent.class)).get()).get());
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+
+            @Test
+            public void should_release_thread_scoped_component_of_discarded_context() {
+                config.bind(ThreadScopedComponent.class, ThreadScopedComponent.class);
+                Context context = config.getContext();
+                WeakReference<ThreadScopedComponent> discarded = new WeakReference<>(config.getContext().get(ComponentRef.of(ThreadScopedComponent.class)).get());
+
+                for (int i = 0; i < 10 && discarded.get() != null; i++) {
+                    System.gc();
+                    context.get(ComponentRef.of(ThreadScopedComponent.class));
+                }
+
+                assertNull(discarded.get());
+            }
+
+            @ThreadScoped
+            static class ThreadScopedWithProvider {
+                @Inject
+                Provider<ThreadScopedComponent> component;
+            }
+
+            @Test
+            public void should_release_thread_scoped_component_holding_provider_of_discarded_context() {
+                config.bind(ThreadScopedComponent.class, ThreadScopedComponent.class);
+                config.bind(ThreadScopedWithProvider.class, ThreadScopedWithProvider.class);
+                Context context = config.getContext();
+                WeakReference<ThreadScopedWithProvider> discarded = new WeakReference<>(config.getContext().get(ComponentRef.of(ThreadScopedWithProvider.class)).get());
+
+                for (int i = 0; i < 10 && discarded.get() != null; i++) {
+                    System.gc();
+                    context.get(ComponentRef.of(ThreadScopedWithProvider.class));
+                }
+
+                assertNull(discarded.get());
+            }
+
+            @RequestScoped
+            static class RequestScopedComponent {
+            }
+
+            static class RequestHandler {
+                @Inject
+                RequestScopedComponent first;
+                @Inject
+                RequestScopedComponent second;
+            }
+
+            @Test
+            public void should_share_request_scoped_component_within_request() {
+                config.bind(RequestScopedComponent.class, RequestScopedComponent.class);
+                config.bind(RequestHandler.class, RequestHandler.class);
+                Context context = config.getContext();
+
+                RequestHandler handler;
+                try (RequestScope request = RequestScope.enter()) {
+                    handler = context.get(ComponentRef.of(RequestHandler.class)).get();
+                    assertSame(handler.first, handler.second);
+                    assertSame(handler.first, context.get(ComponentRef.of(RequestScopedComponent.class)).get());
+                }
+                try (RequestScope request = RequestScope.enter()) {
+                    assertNotSame(handler.first, context.get(ComponentRef.of(RequestScopedComponent.class)).get());
+                }
+            }
+
+            @Test
+            public void should_restore_outer_request_after_nested_request_exits() {
+                config.bind(RequestScopedComponent.class, RequestScopedComponent.class);
+                Context context = config.getContext();
+
+                try (RequestScope outer = RequestScope.enter()) {
+                    RequestScopedComponent instance = context.get(ComponentRef.of(RequestScopedComponent.class)).get();
+                    try (RequestScope inner = RequestScope.enter()) {
+                        assertNotSame(instance, context.get(ComponentRef.of(RequestScopedComponent.class)).get());
+                    }
+                    assertSame(instance, context.get(ComponentRef.of(RequestScopedComponent.class)).get());
+                }
+                assertFalse(RequestScope.isActive());
+            }
+
+            @Test
+            public void should_throw_exception_if_request_scoped_component_retrieved_outside_request() {
+                config.bind(RequestScopedComponent.class, RequestScopedComponent.class);
+                Context context = config.getContext();
+
+                assertThrows(IllegalStateException.class, () -> context.get(ComponentRef.of(RequestScopedComponent.class)));
+            }
+
             @Test
             public void should_bind_component_as_customized_scope() {
                 config.scope(Pooled.class, PooledProvider::new);
@@ -405,6 +729,177 @@ public class ContextTest {
             assertTrue(components.contains(AnotherDependency.class));
         }
 
+        @Test
+        public void should_report_cyclic_dependencies_in_path_order() {
+            config.bind(TestComponent.class, TestComponentWithInjectConstructor.class);
+            config.bind(Dependency.class, DependencyDependedOnAnotherDependency.class);
+            config.bind(AnotherDependency.class, AnotherDependencyDependedOnComponent.class);
+            CyclicDependenciesFoundException exception = assertThrows(CyclicDependenciesFoundException.class, () -> config.getContext());
+
+            Map<Class<?>, Class<?>> dependsOn = Map.of(TestComponent.class, Dependency.class,
+                    Dependency.class, AnotherDependency.class,
+                    AnotherDependency.class, TestComponent.class);
+            Class<?>[] path = exception.getComponents();
+            assertEquals(3, path.length);
+            for (int i = 0; i < path.length; i++) {
+                assertEquals(dependsOn.get(path[i]), path[(i + 1) % path.length]);
+            }
+        }
+
+        static class Node implements ComponentProvider<Object> {
+            private final List<ComponentRef<?>> dependencies;
+            int inspected;
+
+            Node(ComponentRef<?>... dependencies) {
+                this.dependencies = List.of(dependencies);
+            }
+
+            @Override
+            public Object get(Context context) {
+                return this;
+            }
+
+            @Override
+            public List<ComponentRef<?>> getDependencies() {
+                inspected++;
+                return dependencies;
+            }
+        }
+
+        private static ComponentRef<Dependency> node(int index) {
+            return ComponentRef.of(Dependency.class, new NamedLiteral(String.valueOf(index)));
+        }
+
+        @Test
+        public void should_check_dependencies_of_large_shared_graph_in_linear_time() {
+            int size = 20_000;
+            Node[] nodes = new Node[size];
+            for (int i = 0; i < size; i++) {
+                ComponentRef<?>[] dependencies = i == size - 1 ? new ComponentRef<?>[0] : new ComponentRef<?>[]{node(i + 1), node(size - 1)};
+                nodes[i] = new Node(dependencies);
+                config.bind(Dependency.class, List.of(new NamedLiteral(String.valueOf(i))), nodes[i]);
+            }
+
+            config.getContext();
+
+            for (Node node : nodes) assertTrue(node.inspected <= 2, "inspected " + node.inspected + " times");
+        }
+
+        @Test
+        public void should_resolve_every_binding_of_large_context() {
+            int size = 20_000;
+            Node[] nodes = new Node[size];
+            for (int i = 0; i < size; i++) {
+                nodes[i] = new Node();
+                config.bind(Dependency.class, List.of(new NamedLiteral(String.valueOf(i))), nodes[i]);
+            }
+
+            Context context = config.getContext();
+
+            for (int i = 0; i < size; i++) {
+                assertSame(nodes[i], context.get(node(i)).get());
+            }
+            assertTrue(context.get(node(size)).isEmpty());
+        }
+
+        private Node[] bindChain(int size) {
+            Node[] nodes = new Node[size];
+            for (int i = 0; i < size; i++) {
+                nodes[i] = i == size - 1 ? new Node() : new Node(node(i + 1));
+                config.bind(Dependency.class, List.of(new NamedLiteral(String.valueOf(i))), nodes[i]);
+            }
+            return nodes;
+        }
+
+        @Test
+        public void should_only_check_new_bindings_when_getting_context_again() {
+            Node[] nodes = bindChain(20_000);
+            config.getContext();
+
+            Node[] added = new Node[10];
+            for (int i = 0; i < added.length; i++) {
+                added[i] = new Node(node(i * 1000));
+                config.bind(Dependency.class, List.of(new NamedLiteral("added" + i)), added[i]);
+            }
+            for (Node node : nodes) node.inspected = 0;
+            config.getContext();
+
+            assertEquals(0, Arrays.stream(nodes).mapToInt(node -> node.inspected).sum());
+            assertTrue(Arrays.stream(added).allMatch(node -> node.inspected > 0));
+        }
+
+        @Test
+        public void should_recheck_dependents_of_replaced_binding() {
+            Node[] nodes = bindChain(100);
+            config.getContext();
+
+            for (Node node : nodes) node.inspected = 0;
+            Node replaced = new Node();
+            config.bind(Dependency.class, List.of(new NamedLiteral("50")), replaced);
+            config.getContext();
+
+            for (int i = 0; i < 50; i++) assertTrue(nodes[i].inspected > 0);
+            for (int i = 51; i < 100; i++) assertEquals(0, nodes[i].inspected);
+        }
+
+        @Test
+        public void should_find_cycle_introduced_by_replaced_binding() {
+            bindChain(100);
+            config.getContext();
+
+            config.bind(Dependency.class, List.of(new NamedLiteral("99")), new Node(node(10)));
+
+            CyclicDependenciesFoundException exception = assertThrows(CyclicDependenciesFoundException.class, () -> config.getContext());
+            assertEquals(90, exception.getPath().size());
+        }
+
+        interface Backend {
+        }
+
+        static class Frontend {
+            @Inject
+            CompletableFuture<Backend> backend;
+        }
+
+        static class Missing {
+        }
+
+        @AsyncSingleton
+        static class AsyncBackend implements Backend {
+            @Inject
+            Frontend frontend;
+            @Inject
+            Missing missing;
+        }
+
+        static class PrototypeBackend implements Backend {
+            @Inject
+            Frontend frontend;
+        }
+
+        @Test
+        public void should_recheck_dependents_of_replaced_binding_that_failed_validation() {
+            config.bind(Frontend.class, Frontend.class);
+            config.bind(Backend.class, AsyncBackend.class);
+            assertThrows(DependencyNotFoundException.class, () -> config.getContext());
+
+            config.bind(Backend.class, PrototypeBackend.class);
+
+            assertThrows(CyclicDependenciesFoundException.class, () -> config.getContext());
+        }
+
+        @Test
+        public void should_report_cycle_at_end_of_long_dependency_chain() {
+            int size = 20_000;
+            for (int i = 0; i < size; i++) {
+                config.bind(Dependency.class, List.of(new NamedLiteral(String.valueOf(i))), new Node(node(i == size - 1 ? size - 3 : i + 1)));
+            }
+
+            CyclicDependenciesFoundException exception = assertThrows(CyclicDependenciesFoundException.class, () -> config.getContext());
+
+            assertEquals(Set.of(node(size - 3).component(), node(size - 2).component(), node(size - 1).component()), Set.copyOf(exception.getPath()));
+        }
+
         static class CyclicDependencyProviderConstructor implements Dependency {
             @Inject
             public CyclicDependencyProviderConstructor(Provider<TestComponent> componentProvider) {
@@ -420,6 +915,25 @@ public class ContextTest {
             assertTrue(context.get(ComponentRef.of(TestComponent.class)).isPresent());
         }
 
+        static class CyclicDependencyLazyConstructor implements Dependency {
+            final Lazy<TestComponent> component;
+
+            @Inject
+            public CyclicDependencyLazyConstructor(Lazy<TestComponent> component) {
+                this.component = component;
+            }
+        }
+
+        @Test
+        public void should_not_throw_exception_if_cyclic_dependency_via_lazy() {
+            config.bind(TestComponent.class, TestComponentWithInjectConstructor.class);
+            config.bind(Dependency.class, CyclicDependencyLazyConstructor.class);
+
+            Context context = config.getContext();
+            CyclicDependencyLazyConstructor dependency = (CyclicDependencyLazyConstructor) context.get(ComponentRef.of(Dependency.class)).get();
+            assertSame(dependency.component.get(), dependency.component.get());
+        }
+
         @Nested
         public class WithQualifier {
 
@@ -467,6 +981,900 @@ public class ContextTest {
             }
         }
     }
-}
 
+    @Nested
+    public class EagerInitialization {
+        static final List<Class<?>> created = Collections.synchronizedList(new ArrayList<>());
+
+        @Singleton
+        static class Pool {
+            public Pool() {
+                created.add(Pool.class);
+            }
+        }
 
+        static class Prototype {
+            @Inject
+            public Prototype(Pool pool) {
+                created.add(Prototype.class);
+            }
+        }
+
+        @Singleton
+        static class Cache {
+            @Inject
+            public Cache(Prototype prototype) {
+                created.add(Cache.class);
+            }
+        }
+
+        @BeforeEach
+        public void setup() {
+            created.clear();
+            config.bind(Pool.class, Pool.class);
+            config.bind(Prototype.class, Prototype.class);
+            config.bind(Cache.class, Cache.class);
+        }
+
+        @Test
+        public void should_construct_all_singletons_before_first_request() {
+            Context context = config.getContext();
+            context.warmUp(ForkJoinPool.commonPool());
+
+            assertTrue(created.contains(Pool.class));
+            assertTrue(created.contains(Cache.class));
+
+            int constructed = created.size();
+            context.get(ComponentRef.of(Cache.class)).get();
+            context.get(ComponentRef.of(Pool.class)).get();
+            assertEquals(constructed, created.size());
+        }
+
+        @Test
+        public void should_construct_singleton_dependencies_before_dependents() {
+            config.getContext().warmUp(ForkJoinPool.commonPool());
+
+            assertTrue(created.indexOf(Pool.class) < created.indexOf(Cache.class));
+        }
+
+        @Test
+        public void should_report_warm_up_time_per_singleton() {
+            WarmUp warmUp = config.getContext().warmUp(ForkJoinPool.commonPool());
+
+            assertEquals(Set.of(new Component(Pool.class, null), new Component(Cache.class, null)), warmUp.components().keySet());
+            warmUp.components().values().forEach(duration -> assertTrue(duration.compareTo(warmUp.total()) <= 0));
+        }
+
+        @Test
+        public void should_not_warm_up_anything_for_other_context_implementations() {
+            Context context = new Context() {
+                @Override
+                public <ComponentType> Optional<ComponentType> get(ComponentRef<ComponentType> componentRef) {
+                    return Optional.empty();
+                }
+            };
+
+            assertTrue(context.warmUp(Runnable::run).components().isEmpty());
+        }
+    }
+
+    @Nested
+    public class Instrumentation {
+        ComponentMetrics metrics = new ComponentMetrics(Duration.ofMillis(10));
+
+        static class Prototype {
+        }
+
+        @Singleton
+        static class Shared {
+        }
+
+        static class Slow {
+            public Slow() throws InterruptedException {
+                Thread.sleep(20);
+            }
+        }
+
+        @BeforeEach
+        public void setup() {
+            config.metrics(metrics);
+        }
+
+        @Test
+        public void should_count_instances_created_for_prototype() {
+            config.bind(Prototype.class, Prototype.class);
+            Context context = config.getContext();
+            for (int i = 0; i < 3; i++) context.get(ComponentRef.of(Prototype.class));
+
+            ComponentMetrics.Stats stats = metrics.get(new Component(Prototype.class, null)).get();
+            assertEquals(3, stats.created());
+            assertEquals(0, stats.hits());
+            assertEquals(3, Arrays.stream(stats.histogram()).sum());
+        }
+
+        @Test
+        public void should_count_singleton_hits() {
+            config.bind(Shared.class, Shared.class);
+            Context context = config.getContext();
+            for (int i = 0; i < 3; i++) context.get(ComponentRef.of(Shared.class));
+
+            ComponentMetrics.Stats stats = metrics.get(new Component(Shared.class, null)).get();
+            assertEquals(1, stats.created());
+            assertEquals(2, stats.hits());
+        }
+
+        @Test
+        public void should_share_stats_between_qualifiers_of_same_binding() {
+            config.bind(Prototype.class, Prototype.class, new NamedLiteral("ChosenOne"), new SkywalkerLiteral());
+            Context context = config.getContext();
+            context.get(ComponentRef.of(Prototype.class, new NamedLiteral("ChosenOne")));
+            context.get(ComponentRef.of(Prototype.class, new SkywalkerLiteral()));
+
+            assertEquals(2, metrics.get(new Component(Prototype.class, new SkywalkerLiteral())).get().created());
+        }
+
+        @Test
+        public void should_still_warm_up_instrumented_singletons() {
+            config.bind(Shared.class, Shared.class);
+
+            WarmUp warmUp = config.getContext().warmUp(ForkJoinPool.commonPool());
+
+            assertEquals(Set.of(new Component(Shared.class, null)), warmUp.components().keySet());
+        }
+
+        @Test
+        public void should_not_instrument_bindings_without_metrics() {
+            ContextConfig config = new ContextConfig();
+            config.bind(Prototype.class, Prototype.class);
+            config.getContext().get(ComponentRef.of(Prototype.class));
+
+            assertTrue(metrics.components().isEmpty());
+        }
+
+        @Test
+        public void should_emit_flight_recorder_event_for_slow_construction() throws Exception {
+            config.bind(Slow.class, Slow.class);
+            config.bind(Prototype.class, Prototype.class);
+            Context context = config.getContext();
+
+            Path dump = Files.createTempFile("construction", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable("geektime.tdd.di.ComponentConstruction");
+                recording.start();
+                context.get(ComponentRef.of(Slow.class));
+                context.get(ComponentRef.of(Prototype.class));
+                recording.stop();
+                recording.dump(dump);
+            }
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            Files.delete(dump);
+            assertEquals(1, events.size());
+            assertEquals(Slow.class.getName(), events.get(0).getClass("implementation").getName());
+        }
+    }
+
+    @Nested
+    public class ChildContext {
+        @Singleton
+        static class Application {
+        }
+
+        static class Request {
+        }
+
+        static class Handler {
+            @Inject
+            Application application;
+            @Inject
+            Request request;
+            @Inject
+            Provider<Application> provider;
+        }
+
+        Context parent;
+
+        @BeforeEach
+        public void setup() {
+            config.bind(Application.class, Application.class);
+            parent = config.getContext();
+        }
+
+        @Test
+        public void should_resolve_child_bindings_with_parent_components() {
+            Request request = new Request();
+            ContextConfig child = new ContextConfig();
+            child.bind(Request.class, request);
+            child.bind(Handler.class, Handler.class);
+            Context context = child.getContext(parent);
+
+            Handler handler = context.get(ComponentRef.of(Handler.class)).get();
+
+            assertSame(request, handler.request);
+            assertSame(parent.get(ComponentRef.of(Application.class)).get(), handler.application);
+            assertSame(parent.get(new ComponentRef<Provider<Application>>() {
+            }).get(), handler.provider);
+            assertSame(handler.application, context.require(ComponentRef.of(Application.class)));
+        }
+
+        @Test
+        public void should_not_expose_child_bindings_to_parent_or_siblings() {
+            ContextConfig child = new ContextConfig();
+            child.bind(Request.class, new Request());
+            child.getContext(parent);
+
+            assertTrue(parent.get(ComponentRef.of(Request.class)).isEmpty());
+            assertTrue(new ContextConfig().getContext(parent).get(ComponentRef.of(Request.class)).isEmpty());
+        }
+
+        @Test
+        public void should_throw_exception_if_child_dependency_not_found() {
+            ContextConfig child = new ContextConfig();
+            child.bind(Handler.class, Handler.class);
+
+            DependencyNotFoundException exception = assertThrows(DependencyNotFoundException.class, () -> child.getContext(parent));
+
+            assertEquals(Request.class, exception.getDependency().type());
+            assertEquals(Handler.class, exception.getComponent().type());
+        }
+
+        @Test
+        public void should_not_allow_child_to_override_parent_binding() {
+            ContextConfig child = new ContextConfig();
+            child.bind(Application.class, new Application());
+
+            assertThrows(IllegalComponentException.class, () -> child.getContext(parent));
+        }
+
+        @Test
+        public void should_warm_up_parent_singletons_reachable_from_child() {
+            ContextConfig child = new ContextConfig();
+            child.bind(Request.class, new Request());
+            child.bind(Handler.class, Handler.class, new SingletonLiteral());
+
+            WarmUp warmUp = child.getContext(parent).warmUp(Runnable::run);
+
+            assertEquals(Set.of(Component.of(Handler.class, null), Component.of(Application.class, null)), warmUp.components().keySet());
+        }
+    }
+
+    @Nested
+    public class Asynchronous {
+        static CountDownLatch started;
+        static CountDownLatch released;
+
+        @AsyncSingleton
+        static class Cache {
+            final boolean overlapped;
+
+            public Cache() throws InterruptedException {
+                started.countDown();
+                overlapped = started.await(5, TimeUnit.SECONDS);
+            }
+        }
+
+        @AsyncSingleton
+        static class Table {
+            final boolean overlapped;
+
+            public Table() throws InterruptedException {
+                started.countDown();
+                overlapped = started.await(5, TimeUnit.SECONDS);
+            }
+        }
+
+        @AsyncSingleton
+        static class Slow {
+            public Slow() throws InterruptedException {
+                released.await(5, TimeUnit.SECONDS);
+            }
+        }
+
+        static class Dependent {
+            @Inject
+            CompletableFuture<Slow> slow;
+        }
+
+        static class Looping {
+            @Inject
+            CompletableFuture<Looping> self;
+        }
+
+        @AsyncSingleton
+        static class SelfAware {
+            @Inject
+            CompletableFuture<SelfAware> self;
+        }
+
+        ExecutorService executor;
+
+        @BeforeEach
+        public void setup() {
+            started = new CountDownLatch(2);
+            released = new CountDownLatch(1);
+            executor = Executors.newFixedThreadPool(2);
+            config.executor(executor);
+        }
+
+        @AfterEach
+        public void teardown() {
+            released.countDown();
+            executor.shutdownNow();
+        }
+
+        @Test
+        public void should_construct_independent_async_singletons_concurrently() {
+            config.bind(Cache.class, Cache.class);
+            config.bind(Table.class, Table.class);
+            Context context = config.getContext();
+
+            assertTrue(context.get(ComponentRef.of(Cache.class)).get().overlapped);
+            assertTrue(context.get(ComponentRef.of(Table.class)).get().overlapped);
+        }
+
+        @Test
+        public void should_inject_future_without_waiting_for_async_singleton() throws Exception {
+            config.bind(Slow.class, Slow.class);
+            config.bind(Dependent.class, Dependent.class);
+            Context context = config.getContext();
+
+            Dependent dependent = context.get(ComponentRef.of(Dependent.class)).get();
+            assertFalse(dependent.slow.isDone());
+
+            released.countDown();
+            assertSame(context.get(ComponentRef.of(Slow.class)).get(), dependent.slow.get(5, TimeUnit.SECONDS));
+            assertSame(dependent.slow, context.get(new ComponentRef<CompletableFuture<Slow>>() {
+            }).get());
+        }
+
+        @AsyncSingleton
+        static class Chain0 {
+            @Inject
+            Chain1 next;
+        }
+
+        @AsyncSingleton
+        static class Chain1 {
+            @Inject
+            Chain2 next;
+        }
+
+        @AsyncSingleton
+        static class Chain2 {
+            @Inject
+            Chain3 next;
+        }
+
+        @AsyncSingleton
+        static class Chain3 {
+            @Inject
+            Chain4 next;
+        }
+
+        @AsyncSingleton
+        static class Chain4 {
+            @Inject
+            Chain5 next;
+        }
+
+        @AsyncSingleton
+        static class Chain5 {
+        }
+
+        @Test
+        public void should_construct_chain_of_async_singletons_on_single_thread_executor() throws Exception {
+            ExecutorService single = Executors.newSingleThreadExecutor();
+            try {
+                config.executor(single);
+                config.bind(Chain0.class, Chain0.class);
+                config.bind(Chain1.class, Chain1.class);
+                config.bind(Chain2.class, Chain2.class);
+                config.bind(Chain3.class, Chain3.class);
+                config.bind(Chain4.class, Chain4.class);
+                config.bind(Chain5.class, Chain5.class);
+                Context context = config.getContext();
+
+                Chain0 chain = context.get(new ComponentRef<CompletableFuture<Chain0>>() {
+                }).get().get(5, TimeUnit.SECONDS);
+
+                assertSame(context.get(ComponentRef.of(Chain5.class)).get(), chain.next.next.next.next.next);
+            } finally {
+                single.shutdownNow();
+            }
+        }
+
+        @Test
+        public void should_throw_exception_if_cyclic_dependency_via_future_of_prototype() {
+            config.bind(Looping.class, Looping.class);
+
+            CyclicDependenciesFoundException exception = assertThrows(CyclicDependenciesFoundException.class, () -> config.getContext());
+
+            assertEquals(List.of(new Component(Looping.class, null)), exception.getPath());
+        }
+
+        @Test
+        public void should_not_throw_exception_if_cyclic_dependency_via_future_of_async_singleton() throws Exception {
+            config.bind(SelfAware.class, SelfAware.class);
+            Context context = config.getContext();
+
+            SelfAware component = context.get(new ComponentRef<CompletableFuture<SelfAware>>() {
+            }).get().get(5, TimeUnit.SECONDS);
+
+            assertSame(component, component.self.get(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        public void should_retrieve_bind_type_as_future() throws Exception {
+            TestComponent instance = new TestComponent() {
+            };
+            config.bind(TestComponent.class, instance);
+            Context context = config.getContext();
+
+            CompletableFuture<TestComponent> future = context.require(new ComponentRef<CompletableFuture<TestComponent>>() {
+            });
+
+            assertSame(instance, future.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Nested
+    public class Pooling {
+        @Pooled
+        static class Parser {
+        }
+
+        ComponentRef<Lease<Parser>> lease = new ComponentRef<>() {
+        };
+
+        PoolScope pool = new PoolScope(2, Duration.ofSeconds(5));
+
+        @BeforeEach
+        public void setup() {
+            config.scope(Pooled.class, pool);
+            config.bind(Parser.class, Parser.class);
+        }
+
+        @Pooled
+        static class Recycling {
+            @Inject
+            Lease<Recycling> self;
+        }
+
+        @Test
+        public void should_throw_exception_if_cyclic_dependency_via_lease() {
+            config.bind(Recycling.class, Recycling.class);
+
+            assertThrows(CyclicDependenciesFoundException.class, () -> config.getContext());
+        }
+
+        @Test
+        public void should_reuse_returned_instance() {
+            Context context = config.getContext();
+
+            Parser parser;
+            try (Lease<Parser> leased = context.require(lease)) {
+                parser = leased.get();
+            }
+            try (Lease<Parser> leased = context.require(lease)) {
+                assertSame(parser, leased.get());
+            }
+
+            assertEquals(1, pool.hits());
+            assertEquals(1, pool.misses());
+        }
+
+        @Test
+        public void should_create_new_instance_for_direct_injection_without_draining_pool() {
+            Context context = config.getContext();
+            Parser pooled;
+            try (Lease<Parser> leased = context.require(lease)) {
+                pooled = leased.get();
+            }
+
+            assertNotSame(pooled, context.require(ComponentRef.of(Parser.class)));
+            try (Lease<Parser> leased = context.require(lease)) {
+                assertSame(pooled, leased.get());
+            }
+        }
+
+        @Test
+        public void should_return_instance_once_when_lease_closed_twice() {
+            config.scope(Pooled.class, new PoolScope(1, Duration.ofMillis(10)));
+            config.bind(Parser.class, Parser.class);
+            Context context = config.getContext();
+            Lease<Parser> first = context.require(lease);
+            first.close();
+            first.close();
+
+            try (Lease<Parser> leased = context.require(lease)) {
+                assertThrows(IllegalStateException.class, () -> context.require(lease));
+            }
+        }
+
+        @Test
+        public void should_not_hand_out_leased_instance_twice() {
+            Context context = config.getContext();
+
+            try (Lease<Parser> first = context.require(lease); Lease<Parser> second = context.require(lease)) {
+                assertNotSame(first.get(), second.get());
+            }
+            assertEquals(2, pool.misses());
+        }
+
+        @Test
+        public void should_wait_for_instance_when_pool_exhausted() throws Exception {
+            Context context = config.getContext();
+            Lease<Parser> first = context.require(lease);
+            Lease<Parser> second = context.require(lease);
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<Parser> waiting = executor.submit(() -> {
+                    try (Lease<Parser> leased = context.require(lease)) {
+                        return leased.get();
+                    }
+                });
+                while (pool.waits() == 0) Thread.sleep(1);
+                assertFalse(waiting.isDone());
+
+                Parser returned = first.get();
+                first.close();
+                assertSame(returned, waiting.get(5, TimeUnit.SECONDS));
+                second.close();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        public void should_throw_exception_if_no_instance_returned_before_timeout() {
+            config.scope(Pooled.class, new PoolScope(1, Duration.ofMillis(10)));
+            config.bind(Parser.class, Parser.class);
+            Context context = config.getContext();
+
+            try (Lease<Parser> leased = context.require(lease)) {
+                assertThrows(IllegalStateException.class, () -> context.require(lease));
+            }
+        }
+
+        @Test
+        public void should_lease_unpooled_component_without_pooling() {
+            TestComponent instance = new TestComponent() {
+            };
+            config.bind(TestComponent.class, instance);
+
+            try (Lease<TestComponent> leased = config.getContext().require(new ComponentRef<Lease<TestComponent>>() {
+            })) {
+                assertSame(instance, leased.get());
+            }
+        }
+    }
+
+    @Nested
+    public class Reclaimable {
+        static final AtomicInteger created = new AtomicInteger();
+
+        @WeakSingleton
+        static class Cache {
+            public Cache() throws InterruptedException {
+                created.incrementAndGet();
+                Thread.sleep(10);
+            }
+        }
+
+        ReferenceScope scope = ReferenceScope.weak();
+        Context context;
+
+        @BeforeEach
+        public void setup() {
+            created.set(0);
+            config.scope(WeakSingleton.class, scope);
+            config.bind(Cache.class, Cache.class);
+            context = config.getContext();
+        }
+
+        @Test
+        public void should_expose_built_in_reference_scopes() {
+            ContextConfig config = new ContextConfig();
+            config.bind(Cache.class, Cache.class);
+            Context context = config.getContext();
+            context.get(ComponentRef.of(Cache.class));
+
+            ReferenceScope weak = (ReferenceScope) config.scope(WeakSingleton.class).get();
+            assertInstanceOf(ReferenceScope.class, config.scope(SoftSingleton.class).get());
+            assertEquals(0, weak.rebuilds());
+            assertSame(context.get(ComponentRef.of(Cache.class)).get(), context.get(ComponentRef.of(Cache.class)).get());
+        }
+
+        @Test
+        public void should_share_instance_while_reachable() {
+            Cache cache = context.get(ComponentRef.of(Cache.class)).get();
+
+            assertSame(cache, context.get(ComponentRef.of(Cache.class)).get());
+            assertEquals(0, scope.rebuilds());
+        }
+
+        @Test
+        public void should_rebuild_instance_after_eviction() throws Exception {
+            context.get(ComponentRef.of(Cache.class));
+
+            for (int i = 0; i < 100 && scope.evictions() == 0; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, scope.evictions());
+            assertTrue(context.get(ComponentRef.of(Cache.class)).isPresent());
+            assertEquals(1, scope.rebuilds());
+            assertEquals(2, created.get());
+        }
+
+        @Test
+        public void should_build_only_once_under_contention() throws Exception {
+            int threads = 16;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                CyclicBarrier barrier = new CyclicBarrier(threads);
+                List<Future<Cache>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        return context.get(ComponentRef.of(Cache.class)).get();
+                    }));
+                }
+                Set<Cache> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Future<Cache> future : futures) instances.add(future.get());
+
+                assertEquals(1, instances.size());
+                assertEquals(1, created.get());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    public class Expiring {
+        static final AtomicInteger created = new AtomicInteger();
+
+        static final AtomicBoolean failing = new AtomicBoolean();
+
+        static class Snapshot {
+            final int version = created.incrementAndGet();
+
+            Snapshot() {
+                if (failing.get()) throw new IllegalStateException("source unavailable");
+            }
+        }
+
+        AtomicLong clock = new AtomicLong();
+        List<Runnable> refreshes = new ArrayList<>();
+        ExpiringScope scope;
+
+        private Context context(double jitter) {
+            created.set(0);
+            failing.set(false);
+            scope = new ExpiringScope(Duration.ofSeconds(10), jitter, refreshes::add, clock::get);
+            config.scope(Expires.class, scope);
+            config.bind(Snapshot.class, Snapshot.class, new ExpiresLiteral());
+            return config.getContext();
+        }
+
+        @Test
+        public void should_reuse_instance_within_ttl() {
+            Context context = context(0);
+            Snapshot snapshot = context.get(ComponentRef.of(Snapshot.class)).get();
+
+            clock.set(Duration.ofSeconds(9).toNanos());
+
+            assertSame(snapshot, context.get(ComponentRef.of(Snapshot.class)).get());
+            assertTrue(refreshes.isEmpty());
+        }
+
+        @Test
+        public void should_serve_stale_instance_while_refreshing_once() {
+            Context context = context(0);
+            Snapshot stale = context.get(ComponentRef.of(Snapshot.class)).get();
+
+            clock.set(Duration.ofSeconds(10).toNanos());
+
+            assertSame(stale, context.get(ComponentRef.of(Snapshot.class)).get());
+            assertSame(stale, context.get(ComponentRef.of(Snapshot.class)).get());
+            assertEquals(1, refreshes.size());
+
+            refreshes.remove(0).run();
+
+            assertEquals(2, context.get(ComponentRef.of(Snapshot.class)).get().version);
+        }
+
+        @Test
+        public void should_count_failed_refresh_and_keep_serving_stale_instance() {
+            Context context = context(0);
+            Snapshot stale = context.get(ComponentRef.of(Snapshot.class)).get();
+
+            clock.set(Duration.ofSeconds(10).toNanos());
+            failing.set(true);
+            context.get(ComponentRef.of(Snapshot.class));
+            assertThrows(IllegalStateException.class, () -> refreshes.remove(0).run());
+
+            assertEquals(1, scope.refreshFailures());
+            assertSame(stale, context.get(ComponentRef.of(Snapshot.class)).get());
+            assertEquals(1, refreshes.size());
+        }
+
+        @Test
+        public void should_expire_within_jittered_ttl() {
+            Context context = context(0.5);
+            context.get(ComponentRef.of(Snapshot.class));
+
+            clock.set(Duration.ofSeconds(5).toNanos() - 1);
+            context.get(ComponentRef.of(Snapshot.class));
+            assertTrue(refreshes.isEmpty());
+
+            clock.set(Duration.ofSeconds(10).toNanos());
+            context.get(ComponentRef.of(Snapshot.class));
+            assertEquals(1, refreshes.size());
+        }
+
+        @Test
+        public void should_compose_with_component_metrics() {
+            ComponentMetrics metrics = new ComponentMetrics(Duration.ofSeconds(1));
+            config.metrics(metrics);
+            Context context = context(0);
+
+            context.get(ComponentRef.of(Snapshot.class));
+            context.get(ComponentRef.of(Snapshot.class));
+
+            ComponentMetrics.Stats stats = metrics.get(new Component(Snapshot.class, null)).get();
+            assertEquals(2, stats.requests());
+            assertEquals(1, stats.created());
+        }
+    }
+
+    @Nested
+    public class CompiledGraph {
+        @Singleton
+        static class Shared {
+        }
+
+        static class Leaf {
+            @Inject
+            private Shared shared;
+        }
+
+        static class Middle {
+            final Leaf leaf;
+            Provider<Leaf> provider;
+
+            @Inject
+            public Middle(Leaf leaf) {
+                this.leaf = leaf;
+            }
+
+            @Inject
+            void install(Provider<Leaf> provider) {
+                this.provider = provider;
+            }
+        }
+
+        static class Root {
+            @Inject
+            Middle middle;
+            @Inject
+            Shared shared;
+        }
+
+        @BeforeEach
+        public void setup() {
+            config.compile(true);
+            config.bind(Shared.class, Shared.class);
+            config.bind(Leaf.class, Leaf.class);
+            config.bind(Middle.class, Middle.class);
+            config.bind(Root.class, Root.class);
+        }
+
+        @Test
+        public void should_construct_prototype_subtree_and_share_singletons() {
+            Context context = config.getContext();
+
+            Root root = context.get(ComponentRef.of(Root.class)).get();
+
+            assertSame(root.shared, root.middle.leaf.shared);
+            assertSame(root.shared, root.middle.provider.get().shared);
+            assertNotSame(root.middle, context.get(ComponentRef.of(Root.class)).get().middle);
+        }
+
+        static class Diamond {
+            @Inject
+            Middle left;
+            @Inject
+            Middle right;
+        }
+
+        @Test
+        public void should_construct_shared_prototype_subgraph_once_per_use() {
+            config.bind(Diamond.class, Diamond.class);
+            Context context = config.getContext();
+
+            Diamond diamond = context.get(ComponentRef.of(Diamond.class)).get();
+
+            assertNotSame(diamond.left, diamond.right);
+            assertNotSame(diamond.left.leaf, diamond.right.leaf);
+            assertSame(diamond.left.leaf.shared, diamond.right.leaf.shared);
+        }
+
+        @Test
+        public void should_define_hidden_class_for_compiled_component() {
+            assertTrue(new GraphCompiler().compile(new InjectionProvider<>(Root.class)).getClass().isHidden());
+        }
+
+        @Test
+        public void should_keep_dependencies_of_compiled_component() {
+            ComponentProvider<?> compiled = new GraphCompiler().compile(new InjectionProvider<>(Root.class));
+
+            assertEquals(new InjectionProvider<>(Root.class).getDependencies(), compiled.getDependencies());
+        }
+    }
+
+    @Nested
+    public class BatchBinding {
+        static class Leaf {
+        }
+
+        @Singleton
+        static class Shared {
+        }
+
+        static class Root {
+            @Inject
+            Leaf leaf;
+            @Inject
+            Shared shared;
+        }
+
+        static abstract class Abstract {
+        }
+
+        @Test
+        public void should_bind_all_components_of_batch() {
+            config.batch()
+                    .bind(Leaf.class, Leaf.class)
+                    .bind(Shared.class, Shared.class)
+                    .bind(Root.class, Root.class)
+                    .bind(Leaf.class, Leaf.class, new NamedLiteral("leaf"))
+                    .commit(new ForkJoinPool(4));
+            Context context = config.getContext();
+
+            Root root = context.get(ComponentRef.of(Root.class)).get();
+            assertNotNull(root.leaf);
+            assertSame(root.shared, context.get(ComponentRef.of(Shared.class)).get());
+            assertTrue(context.get(ComponentRef.of(Leaf.class, new NamedLiteral("leaf"))).isPresent());
+        }
+
+        @Test
+        public void should_merge_batch_in_declaration_order() {
+            ComponentMetrics metrics = new ComponentMetrics(Duration.ofSeconds(1));
+            config.metrics(metrics);
+            ContextConfig.Batch batch = config.batch();
+            for (int i = 0; i < 100; i++) batch.bind(Object.class, Leaf.class).bind(Object.class, Shared.class);
+            batch.bind(Object.class, Root.class).bind(Leaf.class, Leaf.class).bind(Shared.class, Shared.class);
+            batch.commit();
+
+            assertInstanceOf(Root.class, config.getContext().get(ComponentRef.of(Object.class)).get());
+            assertEquals(Root.class, metrics.get(new Component(Object.class, null)).get().implementation());
+        }
+
+        @Test
+        public void should_report_all_illegal_bindings_and_bind_none() {
+            IllegalBindingsException exception = assertThrows(IllegalBindingsException.class, () -> config.batch()
+                    .bind(Leaf.class, Leaf.class)
+                    .bind(Abstract.class, Abstract.class)
+                    .bind(Root.class, Root.class, new TestLiteral())
+                    .commit());
+
+            assertEquals(2, exception.getErrors().size());
+            assertEquals(2, exception.getSuppressed().length);
+            assertTrue(config.getContext().get(ComponentRef.of(Leaf.class)).isEmpty());
+        }
+    }
+}
@@ -6,9 +6,13 @@ import jakarta.inject.Provider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.Mockito;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -361,6 +365,23 @@ public class InjectionTest {
                 assertEquals(1, component.superCalled);
             }
 
+            static class DeepSubclassWithInjectMethod extends SubclassOverrideSuperClassWithInject {
+                int subCalled = 0;
+
+                @Inject
+                void installAnother() {
+                    subCalled = superCalled + 1;
+                }
+            }
+
+            @Test
+            public void should_call_overridden_inject_method_once_before_subclass_in_deep_hierarchy() {
+                DeepSubclassWithInjectMethod component = new InjectionProvider<>(DeepSubclassWithInjectMethod.class).get(context);
+
+                assertEquals(1, component.superCalled);
+                assertEquals(2, component.subCalled);
+            }
+
             static class SubclassOverrideSuperClassWithNoInject extends SuperClassWithInjectMethod {
                 void install() {
                     super.install();
@@ -460,4 +481,205 @@ public class InjectionTest {
             }
         }
     }
+
+    @Nested
+    public class MethodHandleEngine {
+        static class InjectEverything {
+            Dependency constructorDependency;
+            @Inject
+            Dependency fieldDependency;
+            Provider<Dependency> methodDependency;
+
+            @Inject
+            public InjectEverything(Dependency dependency) {
+                this.constructorDependency = dependency;
+            }
+
+            @Inject
+            void install(Provider<Dependency> dependency) {
+                this.methodDependency = dependency;
+            }
+        }
+
+        @Test
+        public void should_inject_dependencies_via_method_handles() {
+            InjectEverything instance = new InjectionProvider<>(InjectEverything.class, InjectionEngine.METHOD_HANDLE).get(context);
+
+            assertSame(dependency, instance.constructorDependency);
+            assertSame(dependency, instance.fieldDependency);
+            assertSame(dependencyProvider, instance.methodDependency);
+        }
+
+        static class SubclassWithInjectEverything extends InjectEverything {
+            int installed = 0;
+
+            @Inject
+            public SubclassWithInjectEverything(Dependency dependency) {
+                super(dependency);
+            }
+
+            @Inject
+            private void installAnother() {
+                installed++;
+            }
+        }
+
+        @Test
+        public void should_inject_superclass_and_private_members_via_method_handles() {
+            SubclassWithInjectEverything instance = new InjectionProvider<>(SubclassWithInjectEverything.class, InjectionEngine.METHOD_HANDLE).get(context);
+
+            assertSame(dependency, instance.fieldDependency);
+            assertSame(dependencyProvider, instance.methodDependency);
+            assertEquals(1, instance.installed);
+        }
+
+        static class ThrowingConstructor {
+            @Inject
+            public ThrowingConstructor() {
+                throw new IllegalStateException();
+            }
+        }
+
+        static class ThrowingMethod {
+            @Inject
+            void install() throws Exception {
+                throw new Exception("checked");
+            }
+        }
+
+        @ParameterizedTest
+        @EnumSource(InjectionEngine.class)
+        public void should_propagate_runtime_exception_from_constructor(InjectionEngine engine) {
+            assertThrows(IllegalStateException.class, () -> new InjectionProvider<>(ThrowingConstructor.class, engine).get(context));
+        }
+
+        @ParameterizedTest
+        @EnumSource(InjectionEngine.class)
+        public void should_wrap_checked_exception_from_inject_method(InjectionEngine engine) {
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> new InjectionProvider<>(ThrowingMethod.class, engine).get(context));
+
+            assertEquals(RuntimeException.class, exception.getClass());
+            assertEquals("checked", exception.getCause().getMessage());
+        }
+
+        @Test
+        public void should_hold_method_handle_as_constant_in_hidden_class() {
+            InjectionEngine.Injector injector = InjectionEngine.METHOD_HANDLE.constructor(ThrowingConstructor.class.getConstructors()[0]);
+
+            assertTrue(injector.getClass().isHidden());
+        }
+    }
+
+    @Nested
+    public class Linking {
+        static class InjectEverything {
+            Dependency constructorDependency;
+            @Inject
+            Dependency fieldDependency;
+            Provider<Dependency> methodDependency;
+
+            @Inject
+            public InjectEverything(Dependency dependency) {
+                this.constructorDependency = dependency;
+            }
+
+            @Inject
+            void install(Provider<Dependency> dependency) {
+                this.methodDependency = dependency;
+            }
+        }
+
+        @Test
+        public void should_resolve_dependencies_from_linked_providers_by_injection_point() {
+            InjectionProvider<InjectEverything> provider = new InjectionProvider<>(InjectEverything.class);
+            provider.link(ref -> ref.isContainer() ? c -> dependencyProvider : c -> dependency);
+
+            InjectEverything instance = provider.get(context);
+
+            assertSame(dependency, instance.constructorDependency);
+            assertSame(dependency, instance.fieldDependency);
+            assertSame(dependencyProvider, instance.methodDependency);
+            Mockito.verify(context, Mockito.never()).get(Mockito.any());
+        }
+
+        @Test
+        public void should_link_each_injection_point_in_dependency_order() {
+            InjectionProvider<InjectEverything> provider = new InjectionProvider<>(InjectEverything.class);
+            List<ComponentRef<?>> linked = new ArrayList<>();
+            provider.link(ref -> {
+                linked.add(ref);
+                return c -> null;
+            });
+
+            assertEquals(provider.getDependencies(), linked);
+        }
+    }
+
+    @Nested
+    public class MetadataCache {
+        static class CachedComponent {
+            @Inject
+            Dependency dependency;
+        }
+
+        @BeforeEach
+        public void setup() {
+            InjectionCache.clear();
+        }
+
+        @Test
+        public void should_scan_component_only_once_for_all_providers() {
+            new InjectionProvider<>(CachedComponent.class);
+            new InjectionProvider<>(CachedComponent.class, InjectionEngine.METHOD_HANDLE);
+            CachedComponent instance = new InjectionProvider<>(CachedComponent.class).get(context);
+
+            assertSame(dependency, instance.dependency);
+            assertEquals(1, InjectionCache.misses());
+            assertEquals(2, InjectionCache.hits());
+        }
+
+        @Test
+        public void should_share_metadata_across_context_configs() {
+            for (int i = 0; i < 3; i++) {
+                ContextConfig config = new ContextConfig();
+                config.bind(CachedComponent.class, CachedComponent.class);
+            }
+
+            assertEquals(1, InjectionCache.misses());
+        }
+
+        @Test
+        public void should_scan_component_again_after_cache_cleared() {
+            new InjectionProvider<>(CachedComponent.class);
+            InjectionCache.clear();
+            new InjectionProvider<>(CachedComponent.class);
+
+            assertEquals(1, InjectionCache.misses());
+            assertEquals(0, InjectionCache.hits());
+        }
+
+        static class CachedMethods {
+            @Inject
+            void install(Dependency dependency) {
+            }
+        }
+
+        @Test
+        public void should_scan_inject_methods_again_after_cache_cleared() {
+            List<?> methods = InjectionCache.injectMethods(CachedMethods.class);
+            assertSame(methods, InjectionCache.injectMethods(CachedMethods.class));
+
+            InjectionCache.clear();
+
+            assertNotSame(methods, InjectionCache.injectMethods(CachedMethods.class));
+        }
+
+        @Test
+        public void should_not_cache_illegal_component() {
+            assertThrows(IllegalComponentException.class, () -> new InjectionProvider<>(TestComponent.class));
+            assertThrows(IllegalComponentException.class, () -> new InjectionProvider<>(TestComponent.class));
+
+            assertEquals(2, InjectionCache.misses());
+        }
+    }
 }
@@ -83,6 +83,19 @@ record PooledLiteral() implements Pooled {
     }
 }
 
+@Scope
+@Documented
+@Retention(RUNTIME)
+@interface Expires {
+}
+
+record ExpiresLiteral() implements Expires {
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return Expires.class;
+    }
+}
+
 class PooledProvider<T> implements ComponentProvider<T> {
     static int MAX = 2;
 